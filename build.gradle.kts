@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "org.example"
@@ -21,4 +22,15 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Microbenchmarks (src/jmh/java), fără bază de date: ./gradlew jmh
+// Rezultatele se scriu în build/results/jmh/results.json, pentru comparații între commit-uri.
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    includes.set(listOfNotNull(project.findProperty("jmhIncludes") as String?))
+}
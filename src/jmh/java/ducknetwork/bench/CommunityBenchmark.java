@@ -0,0 +1,54 @@
+package ducknetwork.bench;
+
+import ducknetwork.graph.CommunityIndex;
+import ducknetwork.graph.DiameterEngine;
+import ducknetwork.graph.FriendGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Graph work behind NetworkService.getCommunities / numberOfCommunities / mostSociableCommunity,
+ * on a prebuilt snapshot (the database load and the user lookup are not measured).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CommunityBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int nodes;
+
+    FriendGraph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphGenerator.generate(nodes, 42);
+    }
+
+    /** getCommunities: connected components in BFS order. */
+    @Benchmark
+    public int[][] components() {
+        return graph.components();
+    }
+
+    /** numberOfCommunities: initial build of the union-find index. */
+    @Benchmark
+    public int communityIndex() {
+        return CommunityIndex.of(graph).count();
+    }
+
+    /** mostSociableCommunity: component with the largest exact diameter. */
+    @Benchmark
+    public int[] mostSociableCommunity() {
+        return new DiameterEngine(graph).widestComponent(graph.components());
+    }
+}
@@ -0,0 +1,54 @@
+package ducknetwork.bench;
+
+import ducknetwork.graph.FriendGraph;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic friendship graphs for the benchmarks.
+ * Users are split into communities of heavy-tailed size (many small ones, a few large ones). Inside a community
+ * each new member befriends one or two earlier members, picked mostly by preferential attachment, which gives
+ * the hubs and short paths of real social graphs.
+ */
+final class GraphGenerator {
+    private GraphGenerator() {}
+
+    private static final double SECOND_FRIEND_PROBABILITY = 0.5;
+    private static final double UNIFORM_PICK_PROBABILITY = 0.2;
+
+    static FriendGraph generate(int nodes, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        FriendGraph.Builder b = new FriendGraph.Builder();
+        for (long id = 1; id <= nodes; id++) b.addNode(id);
+
+        int[] endpoints = new int[0];
+        int start = 0;
+        while (start < nodes) {
+            int size = Math.min(nodes - start, communitySize(rnd, nodes));
+            if (endpoints.length < 4 * size) endpoints = new int[4 * size];
+            int ends = 0;
+
+            for (int i = 1; i < size; i++) {
+                int friends = rnd.nextDouble() < SECOND_FRIEND_PROBABILITY ? 2 : 1;
+                for (int f = 0; f < friends; f++) {
+                    int j = ends == 0 || rnd.nextDouble() < UNIFORM_PICK_PROBABILITY
+                            ? rnd.nextInt(i)
+                            : endpoints[rnd.nextInt(ends)];
+                    b.addEdge(start + i + 1, start + j + 1);
+                    endpoints[ends++] = i;
+                    endpoints[ends++] = j;
+                }
+            }
+            start += size;
+        }
+        return b.build();
+    }
+
+    /** Heavy-tailed: mostly 2..50 users, sometimes up to a fifth of the whole graph. */
+    private static int communitySize(SplittableRandom rnd, int nodes) {
+        double r = rnd.nextDouble();
+        if (r < 0.001) return Math.max(2, nodes / 5);
+        if (r < 0.05) return 50 + rnd.nextInt(1000);
+        return 2 + rnd.nextInt(49);
+    }
+}
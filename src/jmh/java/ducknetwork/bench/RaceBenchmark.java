@@ -0,0 +1,77 @@
+package ducknetwork.bench;
+
+import ducknetwork.domain.Duck;
+import ducknetwork.domain.FlyingAndSwimmingDuck;
+import ducknetwork.domain.FlyingDuck;
+import ducknetwork.domain.RaceEvent;
+import ducknetwork.domain.SwimmingDuck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * simulateRace over the top swimmers of a large duck pool, picked the way
+ * {@code DuckRepository.findTopSwimmers} does (swimming types, endurance then speed descending).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RaceBenchmark {
+
+    private static final Set<String> SWIMMING_TYPES = Set.of("SWIMMING", "FLYING_AND_SWIMMING");
+
+    @Param({"10000", "1000000"})
+    int poolSize;
+
+    @Param({"10", "1000"})
+    int lanes;
+
+    List<Duck> pool;
+    RaceEvent race;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(7);
+        pool = new ArrayList<>(poolSize);
+        for (long i = 1; i <= poolSize; i++) {
+            double speed = 1 + rnd.nextDouble() * 9;
+            double endurance = 1 + rnd.nextDouble() * 99;
+            String name = "duck" + i;
+            String email = name + "@ducks.test";
+            switch ((int) (i % 3)) {
+                case 0: pool.add(new SwimmingDuck(i, name, email, "pw", speed, endurance)); break;
+                case 1: pool.add(new FlyingDuck(i, name, email, "pw", speed, endurance)); break;
+                default: pool.add(new FlyingAndSwimmingDuck(i, name, email, "pw", speed, endurance)); break;
+            }
+        }
+
+        double[] buoys = new double[64];
+        for (int j = 0; j < buoys.length; j++) buoys[j] = 10 + rnd.nextDouble() * 490;
+        race = new RaceEvent(1L, "bench", buoys);
+        race.setParticipants(pool.stream()
+                .filter(d -> SWIMMING_TYPES.contains(d.getType()))
+                .sorted(Comparator.comparingDouble(Duck::getEndurance).reversed()
+                        .thenComparing(Comparator.comparingDouble(Duck::getSpeed).reversed()))
+                .limit(lanes)
+                .toList());
+    }
+
+    @Benchmark
+    public Map<Duck, Double> simulateRace() {
+        return race.simulateRace(false);
+    }
+}
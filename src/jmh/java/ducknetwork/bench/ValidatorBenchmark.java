@@ -0,0 +1,43 @@
+package ducknetwork.bench;
+
+import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.util.Validators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validators.EMAIL_VALIDATOR on accepted and rejected input (rejection throws).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidatorBenchmark {
+
+    String valid = "  mallard.duck@pond.example.org ";
+    String invalid = "mallard.duck-at-pond";
+
+    @Benchmark
+    public boolean validEmail() {
+        return accepts(valid);
+    }
+
+    @Benchmark
+    public boolean invalidEmail() {
+        return accepts(invalid);
+    }
+
+    private static boolean accepts(String email) {
+        try {
+            Validators.EMAIL_VALIDATOR.accept(email);
+            return true;
+        } catch (DomainExceptions.ValidationException e) {
+            return false;
+        }
+    }
+}
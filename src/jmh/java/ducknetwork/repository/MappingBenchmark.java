@@ -0,0 +1,115 @@
+package ducknetwork.repository;
+
+import ducknetwork.domain.Event;
+import ducknetwork.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mapping of the repositories (JdbcUserRepository.mapUser, JdbcEventRepository.mapEvent) against an in-memory
+ * ResultSet, so only the mapping itself is measured. Lives in the repository package because the mappers
+ * are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    ResultSet personRow;
+    ResultSet duckRow;
+    ResultSet raceRow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> person = userColumns(1L, "PERSON");
+        person.put("p_user_id", 1L);
+        person.put("first_name", "Ana");
+        person.put("last_name", "Pop");
+        person.put("birth_date", LocalDate.of(1999, 4, 12));
+        person.put("occupation", "student");
+        person.put("empathy", 7);
+        personRow = row(person);
+
+        Map<String, Object> duck = userColumns(2L, "DUCK");
+        duck.put("duck_type", "FLYING_AND_SWIMMING");
+        duck.put("speed", 4.5);
+        duck.put("endurance", 80.0);
+        duckRow = row(duck);
+
+        Object[] buoys = new Object[32];
+        for (int i = 0; i < buoys.length; i++) buoys[i] = 10.0 + i;
+        Map<String, Object> race = new HashMap<>();
+        race.put("id", 3L);
+        race.put("name", "Lake cup");
+        race.put("type", "RACE");
+        race.put("buoys", buoys);
+        raceRow = row(race);
+    }
+
+    @Benchmark
+    public User mapPerson() throws SQLException {
+        return JdbcUserRepository.mapUser(personRow);
+    }
+
+    @Benchmark
+    public User mapDuck() throws SQLException {
+        return JdbcUserRepository.mapUser(duckRow);
+    }
+
+    @Benchmark
+    public Event mapRaceEvent() throws SQLException {
+        return JdbcEventRepository.mapEvent(raceRow);
+    }
+
+    private static Map<String, Object> userColumns(long id, String type) {
+        Map<String, Object> m = new HashMap<>();
+        m.put("id", id);
+        m.put("username", "user" + id);
+        m.put("email", "user" + id + "@ducks.test");
+        m.put("password", "secret");
+        m.put("type", type);
+        return m;
+    }
+
+    /** Read-only ResultSet over one row; supports the getters the mappers use. */
+    private static ResultSet row(Map<String, Object> values) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object v = values.get((String) args[0]);
+                    switch (method.getName()) {
+                        case "getLong": return v == null ? 0L : ((Number) v).longValue();
+                        case "getDouble": return v == null ? 0.0 : ((Number) v).doubleValue();
+                        case "getString": return (String) v;
+                        case "getObject": return v;
+                        case "getArray": return v == null ? null : array((Object[]) v);
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Array array(Object[] values) {
+        return (Array) Proxy.newProxyInstance(Array.class.getClassLoader(), new Class<?>[]{Array.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getArray": return values.clone();
+                        case "free": return null;
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -10,6 +10,7 @@ public class Event {
     protected final Long id;
     protected final String name;
     protected final List<User> subscribers = new ArrayList<>();
+    private EventNotifier notifier;
 
     public Event(Long id, String name) {
         this.id = id;
@@ -32,11 +33,23 @@ public class Event {
         return subscribers;
     }
 
+    /**
+     * Route notifications through an asynchronous notifier (e.g. the persisted subscribers dispatcher)
+     * instead of printing to the in-memory subscribers.
+     */
+    public void setNotifier(EventNotifier notifier) {
+        this.notifier = notifier;
+    }
+
     /**
      * Notify all subscribers with a textual message. Default behaviour: call log on user (not implemented here),
      * we keep it simple and print to console and call receiveMessage only if user is a Person (optional).
      */
     public void notifySubscribers(String message) {
+        if (notifier != null) {
+            notifier.publish(this, message);
+            return;
+        }
         for (User u : new ArrayList<>(subscribers)) {
             System.out.println("Notify " + u.getUsername() + " : " + message);
         }
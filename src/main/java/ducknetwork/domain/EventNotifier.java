@@ -0,0 +1,9 @@
+package ducknetwork.domain;
+
+/**
+ * Delivers an event's notification to its subscribers.
+ * Implementations must return quickly; delivery happens asynchronously.
+ */
+public interface EventNotifier {
+    void publish(Event event, String message);
+}
@@ -9,12 +9,16 @@ import java.util.stream.Collectors;
  * and compute times t_i = max_j (2 * d_j / v_i). Total race time is max over participants.
  */
 public class RaceEvent extends Event {
-    private final List<Double> buoys = new ArrayList<>(); // distances d_j
+    private final double[] buoys; // distances d_j
     private final List<Duck> participants = new ArrayList<>();
 
-    public RaceEvent(Long id, String name, List<Double> buoys) {
+    public RaceEvent(Long id, String name, double[] buoys) {
         super(id, name);
-        if (buoys != null) this.buoys.addAll(buoys);
+        this.buoys = (buoys != null) ? buoys.clone() : new double[0];
+    }
+
+    public RaceEvent(Long id, String name, List<Double> buoys) {
+        this(id, name, buoys == null ? null : buoys.stream().mapToDouble(Double::doubleValue).toArray());
     }
 
     /**
@@ -32,10 +36,26 @@ public class RaceEvent extends Event {
         participants.addAll(swimmers);
     }
 
+    /**
+     * Use an already ranked list of swimmers (e.g. selected in the database) as participants, in lane order.
+     */
+    public void setParticipants(List<Duck> ranked) {
+        participants.clear();
+        if (ranked != null) participants.addAll(ranked);
+    }
+
     /**
      * Simulate race: returns a map Duck -> time (t_i), and prints summary.
      */
     public Map<Duck, Double> simulateRace() {
+        return simulateRace(true);
+    }
+
+    /**
+     * Simulate race; lane-by-lane output is printed only if printLanes is set
+     * (races run concurrently would interleave it).
+     */
+    public Map<Duck, Double> simulateRace(boolean printLanes) {
         Map<Duck, Double> times = new LinkedHashMap<>();
         for (Duck d : participants) {
             double maxT = 0.0;
@@ -47,12 +67,16 @@ public class RaceEvent extends Event {
         }
         double total = times.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
         notifySubscribers("Race " + name + " finished in " + String.format("%.3f", total) + "s");
-        int lane = 1;
-        for (Map.Entry<Duck, Double> e : times.entrySet()) {
-            System.out.printf("Duck %s on lane %d: t = %.3f s%n", e.getKey().getUsername(), lane++, e.getValue());
+        if (printLanes) {
+            int lane = 1;
+            for (Map.Entry<Duck, Double> e : times.entrySet()) {
+                System.out.printf("Duck %s on lane %d: t = %.3f s%n", e.getKey().getUsername(), lane++, e.getValue());
+            }
         }
         return times;
     }
 
     public List<Duck> getParticipants() { return participants; }
+
+    public double[] getBuoys() { return buoys.clone(); }
 }
@@ -0,0 +1,296 @@
+package ducknetwork.graph;
+
+import java.util.Arrays;
+
+/**
+ * Incremental connected-components index over the friendship graph.
+ * Unions (new users, new friendships) go through a union-find with path compression
+ * and union by size. Deletions (removed friendship or user) only re-examine the
+ * component that contained them. Thread-safe (all operations are synchronized).
+ */
+public final class CommunityIndex {
+
+    private final LongIntMap indexById;
+    private long[] ids;
+    private int[] parent;
+    private int[] size;
+    private boolean[] alive;
+    private int[][] adj;
+    private int[] degree;
+    private int nodeCount;
+    private int communities;
+
+    // scratch for local rechecks: mark[i] == epoch means visited in the current pass
+    private int[] mark;
+    private int epoch;
+    private int[] queueA;
+    private int[] queueB;
+
+    private CommunityIndex(int capacity) {
+        capacity = Math.max(capacity, 16);
+        indexById = new LongIntMap(capacity);
+        ids = new long[capacity];
+        parent = new int[capacity];
+        size = new int[capacity];
+        alive = new boolean[capacity];
+        adj = new int[capacity][];
+        degree = new int[capacity];
+        mark = new int[capacity];
+        queueA = new int[capacity];
+        queueB = new int[capacity];
+    }
+
+    /**
+     * Builds the index from a graph snapshot.
+     */
+    public static CommunityIndex of(FriendGraph g) {
+        int n = g.size();
+        CommunityIndex idx = new CommunityIndex(n + n / 4);
+        for (int i = 0; i < n; i++) {
+            idx.newNode(g.idOf(i));
+            int deg = g.degree(i);
+            int[] list = new int[Math.max(deg, 2)];
+            for (int p = g.neighborStart(i), k = 0; k < deg; p++, k++) list[k] = g.neighborAt(p);
+            idx.adj[i] = list;
+            idx.degree[i] = deg;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int p = g.neighborStart(i), end = g.neighborEnd(i); p < end; p++) {
+                int j = g.neighborAt(p);
+                if (i < j) idx.union(i, j);
+            }
+        }
+        return idx;
+    }
+
+    /** Number of communities (connected components). */
+    public synchronized int count() {
+        return communities;
+    }
+
+    /**
+     * Community identifier of a user: the id of its component's representative,
+     * or -1 if the user is unknown. Two users are in the same community iff their ids are equal.
+     */
+    public synchronized long communityOf(long userId) {
+        int i = indexById.get(userId);
+        if (i < 0 || !alive[i]) return -1;
+        return ids[find(i)];
+    }
+
+    /** Size of the user's community, or 0 if the user is unknown. */
+    public synchronized int communitySize(long userId) {
+        int i = indexById.get(userId);
+        if (i < 0 || !alive[i]) return 0;
+        return size[find(i)];
+    }
+
+    public synchronized void addUser(long userId) {
+        int i = indexById.get(userId);
+        if (i >= 0 && alive[i]) return;
+        if (i >= 0) {
+            alive[i] = true;
+            parent[i] = i;
+            size[i] = 1;
+            communities++;
+            return;
+        }
+        newNode(userId);
+    }
+
+    public synchronized void addFriend(long a, long b) {
+        int i = indexById.get(a), j = indexById.get(b);
+        if (i < 0 || j < 0 || i == j || !alive[i] || !alive[j]) return;
+        if (indexOfNeighbor(i, j) >= 0) return;
+        appendNeighbor(i, j);
+        appendNeighbor(j, i);
+        union(i, j);
+    }
+
+    /**
+     * Removes the friendship and rechecks only the component that contained it.
+     */
+    public synchronized void removeFriend(long a, long b) {
+        int i = indexById.get(a), j = indexById.get(b);
+        if (i < 0 || j < 0) return;
+        int pi = indexOfNeighbor(i, j);
+        if (pi < 0) return;
+        removeNeighborAt(i, pi);
+        removeNeighborAt(j, indexOfNeighbor(j, i));
+
+        if (stillConnected(i, j)) return;
+
+        // component split in two: relabel both halves
+        relabel(i, queueA);
+        relabel(j, queueA);
+        communities++;
+    }
+
+    /**
+     * Removes the user with all its friendships; its former component may break into several.
+     */
+    public synchronized void removeUser(long userId) {
+        int x = indexById.get(userId);
+        if (x < 0 || !alive[x]) return;
+
+        int deg = degree[x];
+        int[] former = Arrays.copyOf(adj[x], deg);
+        for (int k = 0; k < deg; k++) {
+            int y = former[k];
+            removeNeighborAt(y, indexOfNeighbor(y, x));
+        }
+        degree[x] = 0;
+        alive[x] = false;
+        parent[x] = x;
+        size[x] = 0;
+        communities--;
+
+        nextEpoch();
+        for (int y : former) {
+            if (mark[y] == epoch) continue;
+            int tail = collect(y, queueA);
+            setRoot(queueA, tail, y);
+            communities++;
+        }
+    }
+
+    // ---- internals ----
+
+    private int newNode(long userId) {
+        if (nodeCount == ids.length) grow();
+        int i = nodeCount++;
+        indexById.put(userId, i);
+        ids[i] = userId;
+        parent[i] = i;
+        size[i] = 1;
+        alive[i] = true;
+        if (adj[i] == null) adj[i] = new int[2];
+        communities++;
+        return i;
+    }
+
+    private int find(int i) {
+        int root = i;
+        while (parent[root] != root) root = parent[root];
+        while (parent[i] != root) {
+            int next = parent[i];
+            parent[i] = root;
+            i = next;
+        }
+        return root;
+    }
+
+    private void union(int i, int j) {
+        int ri = find(i), rj = find(j);
+        if (ri == rj) return;
+        if (size[ri] < size[rj]) {
+            int t = ri; ri = rj; rj = t;
+        }
+        parent[rj] = ri;
+        size[ri] += size[rj];
+        communities--;
+    }
+
+    /**
+     * Interleaved BFS from both endpoints; stops as soon as the searches meet
+     * or one side runs out (which proves the split).
+     */
+    private boolean stillConnected(int i, int j) {
+        nextEpoch();
+        int sideB = -epoch; // second side uses the negated epoch as its marker
+        int headA = 0, tailA = 0, headB = 0, tailB = 0;
+        mark[i] = epoch;
+        queueA[tailA++] = i;
+        mark[j] = sideB;
+        queueB[tailB++] = j;
+
+        while (headA < tailA && headB < tailB) {
+            int cur = queueA[headA++];
+            for (int k = 0, d = degree[cur]; k < d; k++) {
+                int nb = adj[cur][k];
+                if (mark[nb] == sideB) return true;
+                if (mark[nb] != epoch) {
+                    mark[nb] = epoch;
+                    queueA[tailA++] = nb;
+                }
+            }
+            cur = queueB[headB++];
+            for (int k = 0, d = degree[cur]; k < d; k++) {
+                int nb = adj[cur][k];
+                if (mark[nb] == epoch) return true;
+                if (mark[nb] != sideB) {
+                    mark[nb] = sideB;
+                    queueB[tailB++] = nb;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void relabel(int start, int[] queue) {
+        nextEpoch();
+        int tail = collect(start, queue);
+        setRoot(queue, tail, start);
+    }
+
+    /** BFS from start over unmarked nodes, marking them with the current epoch. */
+    private int collect(int start, int[] queue) {
+        int head = 0, tail = 0;
+        mark[start] = epoch;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cur = queue[head++];
+            for (int k = 0, d = degree[cur]; k < d; k++) {
+                int nb = adj[cur][k];
+                if (mark[nb] != epoch) {
+                    mark[nb] = epoch;
+                    queue[tail++] = nb;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private void setRoot(int[] members, int count, int root) {
+        for (int k = 0; k < count; k++) parent[members[k]] = root;
+        size[root] = count;
+    }
+
+    private void nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            epoch = 1;
+        }
+    }
+
+    private int indexOfNeighbor(int i, int j) {
+        int[] list = adj[i];
+        for (int k = 0, d = degree[i]; k < d; k++) {
+            if (list[k] == j) return k;
+        }
+        return -1;
+    }
+
+    private void appendNeighbor(int i, int j) {
+        if (degree[i] == adj[i].length) adj[i] = Arrays.copyOf(adj[i], degree[i] * 2);
+        adj[i][degree[i]++] = j;
+    }
+
+    private void removeNeighborAt(int i, int k) {
+        int last = --degree[i];
+        adj[i][k] = adj[i][last];
+    }
+
+    private void grow() {
+        int cap = ids.length * 2;
+        ids = Arrays.copyOf(ids, cap);
+        parent = Arrays.copyOf(parent, cap);
+        size = Arrays.copyOf(size, cap);
+        alive = Arrays.copyOf(alive, cap);
+        adj = Arrays.copyOf(adj, cap);
+        degree = Arrays.copyOf(degree, cap);
+        mark = Arrays.copyOf(mark, cap);
+        queueA = new int[cap];
+        queueB = new int[cap];
+    }
+}
@@ -0,0 +1,200 @@
+package ducknetwork.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact diameter of connected components of a {@link FriendGraph}.
+ * Uses a double sweep to get a lower bound and a central start node, then iFUB
+ * (iterative Fringe Upper Bound): eccentricities are computed level by level from
+ * the farthest fringe inwards, stopping as soon as the lower bound meets the upper bound.
+ * The BFS runs of one fringe level are spread over a fork-join pool.
+ * <p>
+ * Not thread-safe: the calling thread reuses one set of n-sized scratch arrays across calls, and each pool
+ * worker reuses its own set (by {@link ForkJoinWorkerThread#getPoolIndex()}) across leaves and levels. The
+ * arrays belong to the engine, so nothing stays pinned on the pool's workers once it is dropped.
+ */
+public final class DiameterEngine {
+
+    /** Components smaller than this run their BFS sequentially. */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private final FriendGraph g;
+    private final ForkJoinPool pool;
+    private int[][] scratch; // of the calling thread, allocated on first use
+    private int[][][] workerScratch; // by pool index, allocated on first use; guarded by this
+
+    public DiameterEngine(FriendGraph g) {
+        this(g, ForkJoinPool.commonPool());
+    }
+
+    public DiameterEngine(FriendGraph g, ForkJoinPool pool) {
+        this.g = g;
+        this.pool = pool;
+    }
+
+    /**
+     * The component with the largest diameter (first one on ties), or an empty array if there are none.
+     * Components that cannot beat the current best (size - 1 <= best diameter) are skipped without a BFS.
+     */
+    public int[] widestComponent(int[][] components) {
+        int[] best = new int[0];
+        int bestDiam = -1;
+        for (int[] comp : components) {
+            if (comp.length - 1 <= bestDiam) continue;
+            int diam = diameter(comp);
+            if (diam > bestDiam) {
+                bestDiam = diam;
+                best = comp;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Diameter of the component given by its node indices (as returned by {@link FriendGraph#components()}).
+     */
+    public int diameter(int[] component) {
+        if (component.length <= 2) return Math.max(0, component.length - 1);
+
+        if (scratch == null) scratch = newScratch(g.size());
+        int[][] s = scratch;
+        int[] dist = s[0], queue = s[1], parent = s[2];
+
+        // double sweep: component[0] -> a (farthest) -> b (farthest from a)
+        int tail = bfs(component[0], dist, queue, parent);
+        int a = queue[tail - 1];
+        reset(dist, queue, tail);
+
+        tail = bfs(a, dist, queue, parent);
+        int b = queue[tail - 1];
+        int lb = dist[b];
+        int u = b;
+        for (int steps = lb / 2; steps > 0; steps--) u = parent[u];
+        reset(dist, queue, tail);
+
+        // levels of the BFS tree rooted in the middle of the a-b path
+        tail = bfs(u, dist, queue, parent);
+        int[] order = Arrays.copyOf(queue, tail);
+        int[] level = new int[tail];
+        for (int k = 0; k < tail; k++) level[k] = dist[order[k]];
+        reset(dist, queue, tail);
+
+        int i = level[tail - 1];
+        lb = Math.max(lb, i);
+        int ub = 2 * i;
+        int end = tail;
+        boolean parallel = component.length >= PARALLEL_THRESHOLD;
+
+        while (ub > lb) {
+            int start = end;
+            while (start > 0 && level[start - 1] == i) start--;
+
+            int bi;
+            if (parallel) {
+                int leafSize = Math.max(1, (end - start + 4 * pool.getParallelism() - 1) / (4 * pool.getParallelism()));
+                bi = pool.invoke(new EccentricityTask(order, start, end, leafSize));
+            } else {
+                bi = maxEccentricity(order, start, end, s);
+            }
+            lb = Math.max(lb, bi);
+            if (lb > 2 * (i - 1)) return lb;
+
+            ub = 2 * (i - 1);
+            end = start;
+            i--;
+        }
+        return lb;
+    }
+
+    private int maxEccentricity(int[] nodes, int from, int to, int[][] s) {
+        int max = 0;
+        for (int k = from; k < to; k++) {
+            max = Math.max(max, g.eccentricity(nodes[k], s[0], s[1]));
+        }
+        return max;
+    }
+
+    /** BFS filling dist/parent for the reached nodes; returns how many were reached (in queue, BFS order). */
+    private int bfs(int source, int[] dist, int[] queue, int[] parent) {
+        int head = 0, tail = 0;
+        dist[source] = 0;
+        parent[source] = source;
+        queue[tail++] = source;
+        while (head < tail) {
+            int cur = queue[head++];
+            int d = dist[cur] + 1;
+            for (int p = g.neighborStart(cur), e = g.neighborEnd(cur); p < e; p++) {
+                int nb = g.neighborAt(p);
+                if (dist[nb] < 0) {
+                    dist[nb] = d;
+                    parent[nb] = cur;
+                    queue[tail++] = nb;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private static void reset(int[] dist, int[] queue, int tail) {
+        for (int k = 0; k < tail; k++) dist[queue[k]] = -1;
+    }
+
+    /**
+     * Scratch for a parallel leaf: the worker's own {dist, queue}, or the caller's if the leaf runs outside
+     * the pool (the caller does not use its scratch while it waits for the pool).
+     */
+    private int[][] leafScratch() {
+        if (!(Thread.currentThread() instanceof ForkJoinWorkerThread w) || w.getPool() != pool) return scratch;
+        int index = w.getPoolIndex();
+        synchronized (this) {
+            if (workerScratch == null || index >= workerScratch.length) {
+                int length = Math.max(index + 1, pool.getParallelism());
+                workerScratch = workerScratch == null ? new int[length][][] : Arrays.copyOf(workerScratch, length);
+            }
+            int[][] s = workerScratch[index];
+            if (s == null) {
+                int[] dist = new int[g.size()];
+                Arrays.fill(dist, -1);
+                s = workerScratch[index] = new int[][]{dist, new int[g.size()]};
+            }
+            return s;
+        }
+    }
+
+    private static int[][] newScratch(int n) {
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        return new int[][]{dist, new int[n], new int[n]};
+    }
+
+    /**
+     * Splits a fringe level into leaves of at most leafSize nodes; a leaf runs on its worker's scratch, which
+     * {@link FriendGraph#eccentricity} leaves reset to -1 for the next one.
+     */
+    private final class EccentricityTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] nodes;
+        private final int from, to, leafSize;
+
+        EccentricityTask(int[] nodes, int from, int to, int leafSize) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= leafSize) return maxEccentricity(nodes, from, to, leafScratch());
+            int mid = (from + to) >>> 1;
+            EccentricityTask left = new EccentricityTask(nodes, from, mid, leafSize);
+            left.fork();
+            int right = new EccentricityTask(nodes, mid, to, leafSize).compute();
+            return Math.max(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package ducknetwork.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the friendship graph in compressed-sparse-row (CSR) form.
+ * Users are mapped to dense indices 0..n-1 in ascending id order; the neighbors of
+ * node i are {@code neighbors[offsets[i] .. offsets[i+1])}, sorted ascending.
+ * Everything is stored in primitive arrays, no boxing.
+ */
+public final class FriendGraph {
+
+    private final long[] ids;       // index -> user id (sorted)
+    private final int[] offsets;    // length n + 1
+    private final int[] neighbors;  // length 2 * edges
+
+    private FriendGraph(long[] ids, int[] offsets, int[] neighbors) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    /** Number of users (nodes). */
+    public int size() { return ids.length; }
+
+    /** Number of undirected friendships (edges). */
+    public int edgeCount() { return neighbors.length / 2; }
+
+    /** User id of node index. */
+    public long idOf(int index) { return ids[index]; }
+
+    /**
+     * Node index of a user id, or -1 if the user is not part of the snapshot.
+     */
+    public int indexOf(long id) {
+        int i = Arrays.binarySearch(ids, id);
+        return i >= 0 ? i : -1;
+    }
+
+    public int degree(int index) { return offsets[index + 1] - offsets[index]; }
+
+    /** First position of node index's neighbors in {@link #neighborAt(int)}. */
+    public int neighborStart(int index) { return offsets[index]; }
+
+    /** Position just past node index's neighbors. */
+    public int neighborEnd(int index) { return offsets[index + 1]; }
+
+    public int neighborAt(int position) { return neighbors[position]; }
+
+    /**
+     * Connected components, each as an array of node indices in BFS order.
+     * Components are ordered by their smallest user id.
+     */
+    public int[][] components() {
+        int n = size();
+        boolean[] visited = new boolean[n];
+        int[] queue = new int[n];
+        int[][] result = new int[n][];
+        int count = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (visited[start]) continue;
+            int head = 0, tail = 0;
+            visited[start] = true;
+            queue[tail++] = start;
+            while (head < tail) {
+                int cur = queue[head++];
+                for (int p = offsets[cur], end = offsets[cur + 1]; p < end; p++) {
+                    int nb = neighbors[p];
+                    if (!visited[nb]) {
+                        visited[nb] = true;
+                        queue[tail++] = nb;
+                    }
+                }
+            }
+            result[count++] = Arrays.copyOf(queue, tail);
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * BFS from source, returning the largest distance reached (the eccentricity of source
+     * inside its component). dist must have length {@link #size()} and be filled with -1;
+     * it is restored to -1 before returning. queue must have length {@link #size()}.
+     */
+    public int eccentricity(int source, int[] dist, int[] queue) {
+        int head = 0, tail = 0;
+        dist[source] = 0;
+        queue[tail++] = source;
+        int max = 0;
+        while (head < tail) {
+            int cur = queue[head++];
+            int d = dist[cur] + 1;
+            for (int p = offsets[cur], end = offsets[cur + 1]; p < end; p++) {
+                int nb = neighbors[p];
+                if (dist[nb] < 0) {
+                    dist[nb] = d;
+                    if (d > max) max = d;
+                    queue[tail++] = nb;
+                }
+            }
+        }
+        for (int i = 0; i < tail; i++) dist[queue[i]] = -1;
+        return max;
+    }
+
+    /**
+     * Collects user ids and friendships and builds a {@link FriendGraph}.
+     * Edges that reference unknown users, self-loops and duplicates are dropped.
+     */
+    public static final class Builder {
+        private long[] nodeIds = new long[1024];
+        private int nodeCount;
+        private long[] edgeA = new long[1024];
+        private long[] edgeB = new long[1024];
+        private int edgeCount;
+
+        public Builder addNode(long id) {
+            if (nodeCount == nodeIds.length) nodeIds = Arrays.copyOf(nodeIds, nodeCount * 2);
+            nodeIds[nodeCount++] = id;
+            return this;
+        }
+
+        public Builder addEdge(long a, long b) {
+            if (edgeCount == edgeA.length) {
+                edgeA = Arrays.copyOf(edgeA, edgeCount * 2);
+                edgeB = Arrays.copyOf(edgeB, edgeCount * 2);
+            }
+            edgeA[edgeCount] = a;
+            edgeB[edgeCount] = b;
+            edgeCount++;
+            return this;
+        }
+
+        public FriendGraph build() {
+            long[] ids = Arrays.copyOf(nodeIds, nodeCount);
+            Arrays.sort(ids);
+            int n = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) ids[n++] = ids[i];
+            }
+            ids = Arrays.copyOf(ids, n);
+
+            int[] src = new int[edgeCount];
+            int[] dst = new int[edgeCount];
+            int[] offsets = new int[n + 1];
+            int m = 0;
+            for (int e = 0; e < edgeCount; e++) {
+                int a = Arrays.binarySearch(ids, edgeA[e]);
+                int b = Arrays.binarySearch(ids, edgeB[e]);
+                if (a < 0 || b < 0 || a == b) continue;
+                src[m] = a;
+                dst[m] = b;
+                m++;
+                offsets[a + 1]++;
+                offsets[b + 1]++;
+            }
+            for (int i = 0; i < n; i++) offsets[i + 1] += offsets[i];
+
+            int[] neighbors = new int[offsets[n]];
+            int[] fill = Arrays.copyOf(offsets, n);
+            for (int e = 0; e < m; e++) {
+                neighbors[fill[src[e]]++] = dst[e];
+                neighbors[fill[dst[e]]++] = src[e];
+            }
+
+            // sort each adjacency list and drop duplicate friendships
+            int[] compactOffsets = new int[n + 1];
+            int w = 0;
+            for (int i = 0; i < n; i++) {
+                int from = offsets[i], to = offsets[i + 1];
+                Arrays.sort(neighbors, from, to);
+                compactOffsets[i] = w;
+                for (int p = from; p < to; p++) {
+                    if (p == from || neighbors[p] != neighbors[p - 1]) neighbors[w++] = neighbors[p];
+                }
+            }
+            compactOffsets[n] = w;
+            if (w != neighbors.length) neighbors = Arrays.copyOf(neighbors, w);
+
+            return new FriendGraph(ids, compactOffsets, neighbors);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package ducknetwork.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * "People you may know": ranks friends-of-friends of a user by the number of mutual friends
+ * (or by Adamic-Adar, where a mutual friend f contributes 1 / ln(deg f)).
+ * Works directly on the sorted CSR adjacency of a {@link FriendGraph}; scores are accumulated in
+ * per-thread primitive scratch arrays and the top k are kept in a bounded heap.
+ */
+public final class FriendRecommender {
+
+    public enum Scoring { MUTUAL_FRIENDS, ADAMIC_ADAR }
+
+    public record Recommendation(long userId, int mutualFriends, double adamicAdar) {}
+
+    private final FriendGraph g;
+    private final ThreadLocal<Scratch> scratch;
+
+    public FriendRecommender(FriendGraph g) {
+        this.g = g;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(g.size()));
+    }
+
+    public FriendGraph graph() { return g; }
+
+    /**
+     * Top k recommendations for the user (best first); empty if the user is not in the graph.
+     */
+    public List<Recommendation> recommend(long userId, int k, Scoring scoring) {
+        int u = g.indexOf(userId);
+        if (u < 0 || k <= 0) return List.of();
+        return recommendIndex(u, k, scoring);
+    }
+
+    /**
+     * Precomputes the top k for every user, in parallel. Result is indexed by node index
+     * (see {@link FriendGraph#idOf(int)}); every list is empty if k is not positive.
+     */
+    public List<List<Recommendation>> recommendAll(int k, Scoring scoring) {
+        if (k <= 0) return Collections.nCopies(g.size(), List.of());
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<Recommendation>[] result = new List[g.size()];
+        IntStream.range(0, g.size()).parallel()
+                .forEach(u -> result[u] = recommendIndex(u, k, scoring));
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Number of mutual friends of two users, by merge-intersection of their sorted neighbor lists.
+     */
+    public int mutualFriends(long a, long b) {
+        int i = g.indexOf(a), j = g.indexOf(b);
+        if (i < 0 || j < 0) return 0;
+        int p = g.neighborStart(i), pe = g.neighborEnd(i);
+        int q = g.neighborStart(j), qe = g.neighborEnd(j);
+        int common = 0;
+        while (p < pe && q < qe) {
+            int x = g.neighborAt(p), y = g.neighborAt(q);
+            if (x == y) {
+                common++;
+                p++;
+                q++;
+            } else if (x < y) {
+                p++;
+            } else {
+                q++;
+            }
+        }
+        return common;
+    }
+
+    private List<Recommendation> recommendIndex(int u, int k, Scoring scoring) {
+        Scratch s = scratch.get();
+        int touched = 0;
+        int uStart = g.neighborStart(u), uEnd = g.neighborEnd(u);
+
+        for (int p = uStart; p < uEnd; p++) {
+            int f = g.neighborAt(p);
+            int deg = g.degree(f);
+            if (deg < 2) continue; // u is f's only friend
+            double weight = 1.0 / Math.log(deg);
+            for (int q = g.neighborStart(f), qe = g.neighborEnd(f); q < qe; q++) {
+                int w = g.neighborAt(q);
+                if (w == u) continue;
+                if (s.count[w]++ == 0) s.touched[touched++] = w;
+                s.adamicAdar[w] += weight;
+            }
+        }
+
+        Heap heap = new Heap(k, scoring, s);
+        for (int t = 0; t < touched; t++) {
+            int w = s.touched[t];
+            if (!isFriend(uStart, uEnd, w)) heap.offer(w);
+        }
+        int[] best = heap.drainBestFirst();
+
+        List<Recommendation> out = new ArrayList<>(best.length);
+        for (int w : best) out.add(new Recommendation(g.idOf(w), s.count[w], s.adamicAdar[w]));
+
+        for (int t = 0; t < touched; t++) {
+            int w = s.touched[t];
+            s.count[w] = 0;
+            s.adamicAdar[w] = 0.0;
+        }
+        return out;
+    }
+
+    /** Binary search in u's sorted neighbor range. */
+    private boolean isFriend(int from, int to, int w) {
+        int lo = from, hi = to - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int v = g.neighborAt(mid);
+            if (v < w) lo = mid + 1;
+            else if (v > w) hi = mid - 1;
+            else return true;
+        }
+        return false;
+    }
+
+    private static final class Scratch {
+        final int[] count;
+        final double[] adamicAdar;
+        final int[] touched;
+
+        Scratch(int n) {
+            count = new int[n];
+            adamicAdar = new double[n];
+            touched = new int[n];
+        }
+    }
+
+    /**
+     * Bounded min-heap of node indices; the root is the worst of the kept candidates.
+     */
+    private static final class Heap {
+        private final int[] nodes;
+        private final Scoring scoring;
+        private final Scratch s;
+        private int size;
+
+        Heap(int k, Scoring scoring, Scratch s) {
+            this.nodes = new int[k];
+            this.scoring = scoring;
+            this.s = s;
+        }
+
+        void offer(int w) {
+            if (size < nodes.length) {
+                nodes[size] = w;
+                siftUp(size++);
+            } else if (better(w, nodes[0])) {
+                nodes[0] = w;
+                siftDown(0);
+            }
+        }
+
+        int[] drainBestFirst() {
+            int[] out = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                out[i] = nodes[0];
+                nodes[0] = nodes[--size];
+                siftDown(0);
+            }
+            return out;
+        }
+
+        /** Higher score wins; ties go to the other score, then to the smaller index. */
+        private boolean better(int a, int b) {
+            double pa, pb, sa, sb;
+            if (scoring == Scoring.ADAMIC_ADAR) {
+                pa = s.adamicAdar[a]; pb = s.adamicAdar[b];
+                sa = s.count[a]; sb = s.count[b];
+            } else {
+                pa = s.count[a]; pb = s.count[b];
+                sa = s.adamicAdar[a]; sb = s.adamicAdar[b];
+            }
+            if (pa != pb) return pa > pb;
+            if (sa != sb) return sa > sb;
+            return a < b;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(nodes[parent], nodes[i])) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int l = 2 * i + 1, r = l + 1, worst = i;
+                if (l < size && better(nodes[worst], nodes[l])) worst = l;
+                if (r < size && better(nodes[worst], nodes[r])) worst = r;
+                if (worst == i) return;
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int t = nodes[a];
+            nodes[a] = nodes[b];
+            nodes[b] = t;
+        }
+    }
+}
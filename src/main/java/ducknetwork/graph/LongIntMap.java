@@ -0,0 +1,69 @@
+package ducknetwork.graph;
+
+import java.util.Arrays;
+
+/**
+ * Minimal open-addressing map from long keys to non-negative int values, without boxing.
+ * Used to translate user ids into dense node indices. Not thread-safe.
+ */
+final class LongIntMap {
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    LongIntMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new long[cap];
+        values = new int[cap];
+        Arrays.fill(values, MISSING);
+        mask = cap - 1;
+    }
+
+    int size() { return size; }
+
+    /** Value mapped to key, or -1. */
+    int get(long key) {
+        int i = slot(key);
+        while (values[i] != MISSING) {
+            if (keys[i] == key) return values[i];
+            i = (i + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) grow();
+        int i = slot(key);
+        while (values[i] != MISSING) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(values, MISSING);
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != MISSING) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ducknetwork.graph;
+
+/**
+ * Degrees of separation over a {@link FriendGraph} with bidirectional BFS:
+ * each step expands a whole level of the smaller frontier, and the search stops at the
+ * level where the two sides meet (or when the optional depth limit is reached).
+ * Visited marks, distances and parents live in per-thread primitive scratch arrays.
+ */
+public final class PathFinder {
+
+    /** No depth limit. */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final FriendGraph g;
+    private final ThreadLocal<Scratch> scratch;
+
+    public PathFinder(FriendGraph g) {
+        this.g = g;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(g.size()));
+    }
+
+    public FriendGraph graph() { return g; }
+
+    /**
+     * Shortest friend chain between two users as user ids (both ends included),
+     * or an empty array if they are not connected within maxDepth hops.
+     */
+    public long[] shortestPath(long fromId, long toId, int maxDepth) {
+        int s = g.indexOf(fromId), t = g.indexOf(toId);
+        if (s < 0 || t < 0) return new long[0];
+        if (s == t) return new long[]{fromId};
+
+        Scratch sc = scratch.get();
+        int epoch = sc.nextEpoch();
+        Side fwd = sc.forward, bwd = sc.backward;
+        fwd.start(s, epoch);
+        bwd.start(t, epoch);
+
+        int depth = 0; // levels expanded so far on both sides together
+        while (fwd.size > 0 && bwd.size > 0 && depth < maxDepth) {
+            Side grow = fwd.size <= bwd.size ? fwd : bwd;
+            Side other = grow == fwd ? bwd : fwd;
+
+            int bestLen = Integer.MAX_VALUE, meetA = -1, meetB = -1;
+            int nextSize = 0;
+            for (int k = 0; k < grow.size; k++) {
+                int cur = grow.frontier[k];
+                int d = grow.dist[cur] + 1;
+                for (int p = g.neighborStart(cur), e = g.neighborEnd(cur); p < e; p++) {
+                    int nb = g.neighborAt(p);
+                    if (other.mark[nb] == epoch) {
+                        int len = d + other.dist[nb];
+                        if (len < bestLen) {
+                            bestLen = len;
+                            meetA = cur;
+                            meetB = nb;
+                        }
+                    }
+                    if (grow.mark[nb] != epoch) {
+                        grow.mark[nb] = epoch;
+                        grow.dist[nb] = d;
+                        grow.parent[nb] = cur;
+                        grow.next[nextSize++] = nb;
+                    }
+                }
+            }
+            depth++;
+
+            if (meetA >= 0) {
+                if (bestLen > maxDepth) return new long[0];
+                return grow == fwd
+                        ? buildPath(bestLen, meetA, meetB, fwd, bwd)
+                        : buildPath(bestLen, meetB, meetA, fwd, bwd);
+            }
+            grow.swap(nextSize);
+        }
+        return new long[0];
+    }
+
+    /** a is reached from the source side, b from the target side, and a-b is an edge. */
+    private long[] buildPath(int length, int a, int b, Side fwd, Side bwd) {
+        long[] path = new long[length + 1];
+        int pos = fwd.dist[a];
+        for (int cur = a; ; cur = fwd.parent[cur]) {
+            path[pos--] = g.idOf(cur);
+            if (fwd.dist[cur] == 0) break;
+        }
+        pos = fwd.dist[a] + 1;
+        for (int cur = b; ; cur = bwd.parent[cur]) {
+            path[pos++] = g.idOf(cur);
+            if (bwd.dist[cur] == 0) break;
+        }
+        return path;
+    }
+
+    private static final class Side {
+        final int[] mark, dist, parent;
+        int[] frontier, next;
+        int size;
+
+        Side(int n) {
+            mark = new int[n];
+            dist = new int[n];
+            parent = new int[n];
+            frontier = new int[n];
+            next = new int[n];
+        }
+
+        void start(int node, int epoch) {
+            mark[node] = epoch;
+            dist[node] = 0;
+            parent[node] = node;
+            frontier[0] = node;
+            size = 1;
+        }
+
+        void swap(int nextSize) {
+            int[] t = frontier;
+            frontier = next;
+            next = t;
+            size = nextSize;
+        }
+    }
+
+    private static final class Scratch {
+        final Side forward, backward;
+        int epoch;
+
+        Scratch(int n) {
+            forward = new Side(n);
+            backward = new Side(n);
+        }
+
+        int nextEpoch() {
+            if (++epoch == Integer.MAX_VALUE) {
+                java.util.Arrays.fill(forward.mark, 0);
+                java.util.Arrays.fill(backward.mark, 0);
+                epoch = 1;
+            }
+            return epoch;
+        }
+    }
+}
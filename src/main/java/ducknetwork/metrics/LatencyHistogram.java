@@ -0,0 +1,101 @@
+package ducknetwork.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in nanoseconds with HDR-style log-linear buckets: every power of two
+ * is split into {@value #SUB_BUCKETS} linear sub-buckets, so a recorded value is reported with at most
+ * ~6% relative error. Each bucket is a LongAdder, so concurrent recorders only contend on a stripe.
+ * Values above ~2^40 ns (18 minutes) land in the last bucket.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets[indexOf(nanos)].increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Copies the counters (and clears them if reset is set; values recorded concurrently with a reset
+     * end up either in this snapshot or in the next one).
+     */
+    public Snapshot snapshot(boolean reset) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = reset ? buckets[i].sumThenReset() : buckets[i].sum();
+            total += counts[i];
+        }
+        long s = reset ? sum.sumThenReset() : sum.sum();
+        long m = reset ? max.getThenReset() : max.get();
+        return new Snapshot(counts, total, s, m);
+    }
+
+    static int indexOf(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (v >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /** Largest value that maps to the bucket. */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return ((long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS)) + width - 1;
+    }
+
+    /**
+     * Point-in-time copy of a histogram.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long count() { return count; }
+
+        public long maxNanos() { return max; }
+
+        public double meanNanos() { return count == 0 ? 0.0 : (double) sum / count; }
+
+        /** Value at quantile q (0..1), as the upper bound of its bucket, capped at the observed max. */
+        public long quantileNanos(double q) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), max);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package ducknetwork.metrics;
+
+import ducknetwork.util.AppConfig;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Singleton registry of per-operation metrics: call count, error count and a latency histogram
+ * (p50 / p99 / p999) for every repository method (recorded by {@link #instrument} proxies) and every
+ * NetworkService operation (recorded by {@link #time}). Recording is lock-free (LongAdder counters and buckets).
+ * Disabled with {@code metrics.enabled=false}.
+ */
+public final class Metrics {
+
+    private static Metrics INSTANCE;
+
+    private final boolean enabled;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private ScheduledExecutorService dumper;
+
+    /**
+     * Counters of one operation.
+     */
+    public static final class Operation {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        public void record(long nanos, boolean error) {
+            calls.increment();
+            if (error) errors.increment();
+            latency.record(nanos);
+        }
+    }
+
+    /**
+     * Snapshot of one operation; latencies in nanoseconds.
+     */
+    public record OperationStats(String name, long calls, long errors, double mean,
+                                 long p50, long p99, long p999, long max) {}
+
+    private Metrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static synchronized Metrics getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new Metrics(Boolean.parseBoolean(AppConfig.get("metrics.enabled", "true")));
+        }
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public Operation operation(String name) {
+        return operations.computeIfAbsent(name, n -> new Operation());
+    }
+
+    public <T> T time(String name, Supplier<T> body) {
+        if (!enabled) return body.get();
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            T result = body.get();
+            error = false;
+            return result;
+        } finally {
+            operation(name).record(System.nanoTime() - start, error);
+        }
+    }
+
+    public void time(String name, Runnable body) {
+        time(name, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wraps target in a proxy of the given interface that records every call as
+     * {@code <Interface>.<method>}. Returns target unchanged if metrics are disabled.
+     */
+    public <T> T instrument(Class<T> iface, T target) {
+        if (!enabled || target == null) return target;
+        String prefix = iface.getSimpleName() + ".";
+        Map<Method, Operation> byMethod = new ConcurrentHashMap<>();
+
+        Object proxy = Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[]{iface}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) return method.invoke(target, args);
+
+            Operation op = byMethod.computeIfAbsent(method, m -> operation(prefix + m.getName()));
+            long start = System.nanoTime();
+            boolean error = true;
+            try {
+                Object result = method.invoke(target, args);
+                error = false;
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                op.record(System.nanoTime() - start, error);
+            }
+        });
+        return iface.cast(proxy);
+    }
+
+    /**
+     * Stats of every operation with at least one call, sorted by total time spent (largest first).
+     * If reset is set, the counters start again from zero.
+     */
+    public List<OperationStats> snapshot(boolean reset) {
+        List<OperationStats> list = new ArrayList<>();
+        operations.forEach((name, op) -> {
+            long calls = reset ? op.calls.sumThenReset() : op.calls.sum();
+            long errors = reset ? op.errors.sumThenReset() : op.errors.sum();
+            LatencyHistogram.Snapshot h = op.latency.snapshot(reset);
+            if (calls == 0) return;
+            list.add(new OperationStats(name, calls, errors, h.meanNanos(),
+                    h.quantileNanos(0.50), h.quantileNanos(0.99), h.quantileNanos(0.999), h.maxNanos()));
+        });
+        list.sort(Comparator.comparingDouble((OperationStats s) -> s.mean() * s.calls()).reversed());
+        return list;
+    }
+
+    /**
+     * Text table of {@link #snapshot(boolean)}, latencies in milliseconds.
+     */
+    public String report(boolean reset) {
+        List<OperationStats> stats = snapshot(reset);
+        if (stats.isEmpty()) return "(no calls recorded)" + System.lineSeparator();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-45s %9s %7s %10s %10s %10s %10s %10s%n",
+                "operation", "calls", "errors", "mean ms", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (OperationStats s : stats) {
+            sb.append(String.format("%-45s %9d %7d %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                    s.name(), s.calls(), s.errors(), s.mean() / 1e6,
+                    s.p50() / 1e6, s.p99() / 1e6, s.p999() / 1e6, s.max() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends a report (without resetting) to {@code metrics.dumpFile} every {@code metrics.dumpIntervalSeconds}
+     * seconds; does nothing if metrics are disabled or the interval is 0.
+     */
+    public synchronized void startPeriodicDump() {
+        long interval = AppConfig.getLong("metrics.dumpIntervalSeconds", 60);
+        if (!enabled || interval <= 0 || dumper != null) return;
+        Path file = Path.of(AppConfig.get("metrics.dumpFile", "metrics.log"));
+
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(file), interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the periodic dump, writing one last report.
+     */
+    public synchronized void stopPeriodicDump() {
+        if (dumper == null) return;
+        dumper.shutdownNow();
+        dumper = null;
+        dump(Path.of(AppConfig.get("metrics.dumpFile", "metrics.log")));
+    }
+
+    private void dump(Path file) {
+        String text = "=== " + LocalDateTime.now() + System.lineSeparator() + report(false) + System.lineSeparator();
+        try {
+            Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Nu s-a putut scrie " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,36 +1,52 @@
 package ducknetwork.persistence;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ducknetwork.util.AppConfig;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Singleton class to manage a single, persistent database connection.
+ * Singleton care gestionează un pool de conexiuni (HikariCP) către baza de date.
+ * Repository-urile împrumută o conexiune cu {@link #getConnection()} și o returnează
+ * în pool prin {@code close()} (try-with-resources), fără a reface handshake-ul.
  */
 public class Database {
 
-    // Connection details - hardcoded as in the original file
-    private static final String URL = "jdbc:postgresql://localhost:5432/duckdb";
-    private static final String USER = "duckuser";
-    private static final String PASSWORD = "Vlady123";
+    // Valori implicite, folosite doar daca lipsesc din config.properties
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432/duckdb";
+    private static final String DEFAULT_USER = "duckuser";
+    private static final String DEFAULT_PASSWORD = "Vlady123";
 
     private static Database INSTANCE;
-    private Connection connection; // NU mai este final
+    private final HikariDataSource dataSource;
 
     /**
-     * Stabilește conexiunea inițială.
+     * Construiește pool-ul pe baza setărilor din config.properties.
      */
     private Database() {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName("org.postgresql.Driver");
+        config.setJdbcUrl(AppConfig.get("db.url", DEFAULT_URL));
+        config.setUsername(AppConfig.get("db.user", DEFAULT_USER));
+        config.setPassword(AppConfig.get("db.password", DEFAULT_PASSWORD));
+        config.setPoolName("duck-pool");
+        config.setMinimumIdle(AppConfig.getInt("db.pool.minimumIdle", 1));
+        config.setMaximumPoolSize(AppConfig.getInt("db.pool.maximumPoolSize", 10));
+        config.setConnectionTimeout(AppConfig.getLong("db.pool.connectionTimeoutMs", 30_000L));
+        config.setIdleTimeout(AppConfig.getLong("db.pool.idleTimeoutMs", 600_000L));
+        config.setMaxLifetime(AppConfig.getLong("db.pool.maxLifetimeMs", 1_800_000L));
+        // JDBC batch-urile de INSERT sunt rescrise de pgjdbc in INSERT-uri multi-row
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+
         try {
-            // 1. Load the Driver
-            Class.forName("org.postgresql.Driver");
-            // 2. Create the single connection instance
-            this.connection = DriverManager.getConnection(URL, USER, PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("PostgreSQL JDBC Driver not found! (nu merge!)", e);
-        } catch (SQLException e) {
-            // Aruncăm o excepție clară la eșecul inițial
-            throw new RuntimeException("Failed to establish initial database connection!", e);
+            this.dataSource = new HikariDataSource(config);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to initialize database connection pool: " + e.getMessage(), e);
         }
     }
 
@@ -45,34 +61,38 @@ public class Database {
     }
 
     /**
-     * Returns the persistent database Connection object.
-     * Dacă conexiunea s-a închis (e.g., timeout de la server), o re-stabilește.
-     * * @return The database connection.
-     * @throws SQLException If re-establishment fails.
+     * Împrumută o conexiune din pool. Apelantul trebuie să o închidă (try-with-resources),
+     * ceea ce o returnează în pool.
+     *
+     * @return a pooled database connection.
+     * @throws SQLException If no connection can be obtained within the configured timeout.
      */
     public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
 
-        if (this.connection == null || this.connection.isClosed()) {
-            try {
-                this.connection = DriverManager.getConnection(URL, USER, PASSWORD);
-                //System.out.println("Conexiune re-stabilită cu succes.");
-            } catch (SQLException e) {
-                throw new SQLException("Re-establishment of the database connection failed: " + e.getMessage(), e);
-            }
-        }
-        return this.connection;
+    /**
+     * Deschide o conexiune nouă, în afara pool-ului, cu aceleași setări. Pentru sesiunile de lungă durată
+     * (LISTEN), care altfel ar ține ocupată permanent o conexiune din pool. Apelantul o închide.
+     */
+    public Connection openDedicatedConnection() throws SQLException {
+        return DriverManager.getConnection(AppConfig.get("db.url", DEFAULT_URL),
+                AppConfig.get("db.user", DEFAULT_USER), AppConfig.get("db.password", DEFAULT_PASSWORD));
+    }
+
+    /**
+     * Exposes the underlying pooled DataSource.
+     */
+    public DataSource getDataSource() {
+        return dataSource;
     }
 
     /**
-     * Utility method to close the connection gracefully (should be called on app shutdown).
+     * Inchide pool-ul (should be called on app shutdown).
      */
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing database connection: " + e.getMessage());
-            }
+        if (!dataSource.isClosed()) {
+            dataSource.close();
         }
     }
-}
\ No newline at end of file
+}
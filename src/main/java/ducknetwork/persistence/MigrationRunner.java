@@ -0,0 +1,150 @@
+package ducknetwork.persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Aplică la pornire migrările versionate din {@code db/migration} (classpath), în ordine, fiecare în propria
+ * tranzacție. Versiunile aplicate sunt ținute în {@code schema_version}, împreună cu un checksum al fișierului:
+ * o migrare deja aplicată nu se mai rulează, iar una modificată după aplicare oprește pornirea.
+ * <p>
+ * Două instanțe pornite simultan se serializează pe un advisory lock, deci doar una aplică migrările.
+ */
+public class MigrationRunner {
+
+    private static final String LOCATION = "/db/migration/";
+
+    /** Fișierele de migrare, în ordinea versiunilor; numele are forma {@code V<n>__<descriere>.sql}. */
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__base_schema.sql",
+            "V2__race_results.sql",
+            "V3__hot_path_indexes.sql",
+            "V4__swimmer_order_tie_break.sql"
+    );
+
+    private static final long LOCK_KEY = 0x4455434B4D4947L; // "DUCKMIG"
+
+    record Migration(int version, String description, String file) {
+
+        static Migration parse(String file) {
+            int sep = file.indexOf("__");
+            if (!file.startsWith("V") || sep < 0 || !file.endsWith(".sql"))
+                throw new IllegalArgumentException("Invalid migration file name: " + file);
+            int version = Integer.parseInt(file.substring(1, sep));
+            String description = file.substring(sep + 2, file.length() - 4).replace('_', ' ');
+            return new Migration(version, description, file);
+        }
+
+        String sql() {
+            try (InputStream in = MigrationRunner.class.getResourceAsStream(LOCATION + file)) {
+                if (in == null) throw new IllegalStateException("Migration not found on classpath: " + file);
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read migration " + file + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Aplică migrările care lipsesc; returnează câte au fost aplicate.
+     */
+    public int run() {
+        try (Connection conn = Database.getInstance().getConnection()) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                        "version INT PRIMARY KEY, " +
+                        "description VARCHAR(200) NOT NULL, " +
+                        "checksum BIGINT NOT NULL, " +
+                        "installed_at TIMESTAMPTZ NOT NULL DEFAULT now())");
+            }
+            lock(conn, true);
+            try {
+                return migrate(conn);
+            } finally {
+                lock(conn, false);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to migrate schema: " + e.getMessage(), e);
+        }
+    }
+
+    private int migrate(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = appliedVersions(conn);
+        int count = 0;
+        int previous = 0;
+        for (String file : MIGRATIONS) {
+            Migration m = Migration.parse(file);
+            if (m.version() <= previous)
+                throw new IllegalStateException("Migrations out of order at " + file);
+            previous = m.version();
+
+            String sql = m.sql();
+            long checksum = checksum(sql);
+            Long installed = applied.get(m.version());
+            if (installed != null) {
+                if (installed != checksum)
+                    throw new IllegalStateException("Migration V" + m.version() + " was modified after it was applied");
+                continue;
+            }
+            apply(conn, m, sql, checksum);
+            count++;
+        }
+        return count;
+    }
+
+    private void apply(Connection conn, Migration m, String sql, long checksum) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement st = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                     "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)")) {
+            st.execute(sql);
+            record.setInt(1, m.version());
+            record.setString(2, m.description());
+            record.setLong(3, checksum);
+            record.executeUpdate();
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw new RuntimeException("Failed to apply migration V" + m.version() + ": " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        System.out.println("Migrare aplicată: V" + m.version() + " " + m.description()
+                + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+
+    private Map<Integer, Long> appliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) applied.put(rs.getInt(1), rs.getLong(2));
+        }
+        return applied;
+    }
+
+    private void lock(Connection conn, boolean acquire) throws SQLException {
+        String sql = acquire ? "SELECT pg_advisory_lock(?)" : "SELECT pg_advisory_unlock(?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, LOCK_KEY);
+            ps.execute();
+        }
+    }
+
+    private static long checksum(String sql) {
+        CRC32 crc = new CRC32();
+        crc.update(sql.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
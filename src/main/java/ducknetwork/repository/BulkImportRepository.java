@@ -0,0 +1,30 @@
+package ducknetwork.repository;
+
+import java.nio.file.Path;
+
+/**
+ * Import în masă pentru utilizatori și prietenii, dintr-un fișier CSV (cu header) sau NDJSON.
+ */
+public interface BulkImportRepository {
+
+    /**
+     * Rezultatul unui import: câte rânduri au fost citite, respinse la validare și efectiv inserate.
+     */
+    record ImportReport(long rowsRead, long rowsRejected, long rowsInserted, long elapsedNanos) {
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("read=%d, rejected=%d, inserted=%d, %.1f s, %.0f rows/s",
+                    rowsRead, rowsRejected, rowsInserted, elapsedNanos / 1e9, rowsPerSecond());
+        }
+    }
+
+    /** Importă utilizatori (Person / Duck); rândurile invalide sunt respinse și numărate. */
+    ImportReport importUsers(Path file);
+
+    /** Importă prietenii între utilizatori existenți, identificați prin username. */
+    ImportReport importFriendships(Path file);
+}
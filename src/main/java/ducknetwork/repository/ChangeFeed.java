@@ -0,0 +1,286 @@
+package ducknetwork.repository;
+
+import ducknetwork.metrics.Metrics;
+import ducknetwork.persistence.Database;
+import ducknetwork.util.AppConfig;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Singleton change feed between application instances that share one database, over PostgreSQL
+ * LISTEN/NOTIFY on channel {@value #CHANNEL}.
+ * <p>
+ * The JDBC repositories {@link #publish} a compact payload ({@code kind:a:b:origin:sentMicros}) on the
+ * connection of each mutation; where the mutation runs in a transaction the NOTIFY is part of it and is only
+ * delivered on commit. A daemon thread listens on a dedicated connection (outside the pool: LISTEN belongs
+ * to the session), collects what arrives within {@code cache.invalidation.batchMillis} and applies the batch
+ * once: {@link UserCache} entries of the changed users, then the registered {@link Listener}s
+ * (NetworkService drops its graph snapshot). Notifications of this instance are skipped, since the
+ * local caches were already updated. After a reconnect everything is invalidated, because whatever was
+ * sent while disconnected is lost.
+ * <p>
+ * The delay from publish to applied invalidation of each remote change is recorded as
+ * {@code ChangeFeed.invalidationLag} (see {@link Metrics}); across hosts it includes their clock difference.
+ */
+public final class ChangeFeed {
+
+    public static final String CHANNEL = "ducknetwork_changes";
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long VALIDATE_IDLE_MS = 30_000;
+
+    private static ChangeFeed INSTANCE;
+
+    public enum Kind {
+        USER('u'), FRIENDSHIP('f'), CARD_MEMBER('c'), SUBSCRIPTION('s'), ALL('*');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+
+        static Kind of(char code) {
+            for (Kind k : values()) {
+                if (k.code == code) return k;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One change. a and b are the ids involved (user; user pair; duck, card; event, user),
+     * 0 where the change covers more than one row.
+     */
+    public record Change(Kind kind, long a, long b) {}
+
+    /**
+     * Receives each applied batch of changes published by other instances.
+     */
+    public interface Listener {
+        void onChanges(List<Change> changes);
+    }
+
+    /**
+     * Snapshot of the feed counters.
+     */
+    public record Stats(long published, long received, long ownSkipped, long batches, long reconnects, boolean listening) {
+        @Override
+        public String toString() {
+            return String.format("published=%d, received=%d, ownSkipped=%d, batches=%d, reconnects=%d, listening=%s",
+                    published, received, ownSkipped, batches, reconnects, listening);
+        }
+    }
+
+    private final boolean enabled;
+    private final long batchMillis;
+    private final String origin = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Metrics metrics = Metrics.getInstance();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder ownSkipped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+
+    private Thread thread;
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+
+    private ChangeFeed(boolean enabled, long batchMillis) {
+        this.enabled = enabled;
+        this.batchMillis = batchMillis;
+    }
+
+    public static synchronized ChangeFeed getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new ChangeFeed(Boolean.parseBoolean(AppConfig.get("cache.invalidation.enabled", "true")),
+                    AppConfig.getLong("cache.invalidation.batchMillis", 20L));
+        }
+        return INSTANCE;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Sends a change on the given connection (inside its transaction, if one is open).
+     */
+    public void publish(Connection conn, Kind kind, long a, long b) throws SQLException {
+        if (!enabled) return;
+        String payload = kind.code + ":" + a + ":" + b + ":" + origin + ":" + nowMicros();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT pg_notify(?, ?)")) {
+            ps.setString(1, CHANNEL);
+            ps.setString(2, payload);
+            ps.execute();
+        }
+        published.increment();
+    }
+
+    /**
+     * Starts the listener thread; does nothing if already started or {@code cache.invalidation.enabled=false}.
+     */
+    public synchronized void start() {
+        if (!enabled || thread != null) return;
+        running = true;
+        thread = new Thread(this::listen, "change-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (thread == null) return;
+        running = false;
+        thread.interrupt();
+        Connection conn = listenConnection;
+        if (conn != null) {
+            try {
+                conn.close(); // unblocks getNotifications
+            } catch (SQLException ignored) {
+                // closing anyway
+            }
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    public Stats stats() {
+        return new Stats(published.sum(), received.sum(), ownSkipped.sum(), batches.sum(), reconnects.sum(),
+                listenConnection != null);
+    }
+
+    private void listen() {
+        long backoff = 1_000;
+        boolean missed = false;
+        while (running) {
+            try (Connection conn = Database.getInstance().openDedicatedConnection()) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                listenConnection = conn;
+                if (missed) apply(List.of(new Change(Kind.ALL, 0, 0)));
+                backoff = 1_000;
+                receive(conn.unwrap(PGConnection.class), conn);
+            } catch (SQLException | RuntimeException e) {
+                if (!running) break;
+                reconnects.increment();
+                missed = true;
+                System.err.println("ChangeFeed: conexiunea LISTEN a căzut (" + e.getMessage()
+                        + "), reconectare în " + backoff + " ms");
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    private void receive(PGConnection pg, Connection conn) throws SQLException {
+        long idleSince = System.nanoTime();
+        while (running) {
+            PGNotification[] first = pg.getNotifications(1_000);
+            if (first == null || first.length == 0) {
+                // a half-open socket never fails a read: probe it now and then
+                if (System.nanoTime() - idleSince > TimeUnit.MILLISECONDS.toNanos(VALIDATE_IDLE_MS)) {
+                    if (!conn.isValid(5)) throw new SQLException("LISTEN connection is no longer valid");
+                    idleSince = System.nanoTime();
+                }
+                continue;
+            }
+
+            List<PGNotification> batch = new ArrayList<>(first.length);
+            Collections.addAll(batch, first);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchMillis);
+            long remaining;
+            while ((remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+                PGNotification[] more = pg.getNotifications((int) remaining);
+                if (more != null) Collections.addAll(batch, more);
+            }
+            process(batch);
+            idleSince = System.nanoTime();
+        }
+    }
+
+    private void process(List<PGNotification> batch) {
+        List<Change> remote = new ArrayList<>(batch.size());
+        long[] sent = new long[batch.size()]; // sent[i]: publish time of remote.get(i)
+        int n = 0;
+        for (PGNotification notification : batch) {
+            String[] f = notification.getParameter().split(":");
+            Kind kind = f.length == 5 && f[0].length() == 1 ? Kind.of(f[0].charAt(0)) : null;
+            if (kind == null) continue; // not one of ours
+            try {
+                Change change = new Change(kind, Long.parseLong(f[1]), Long.parseLong(f[2]));
+                long sentMicros = Long.parseLong(f[4]);
+                n++;
+                if (origin.equals(f[3])) {
+                    ownSkipped.increment();
+                } else {
+                    sent[remote.size()] = sentMicros;
+                    remote.add(change);
+                }
+            } catch (NumberFormatException ignored) {
+                // malformed payload
+            }
+        }
+        received.add(n);
+        apply(remote);
+        batches.increment();
+
+        // only the changes applied here: our own were never invalidated through the feed
+        if (metrics.isEnabled() && !remote.isEmpty()) {
+            Metrics.Operation lag = metrics.operation("ChangeFeed.invalidationLag");
+            long applied = nowMicros();
+            for (int i = 0; i < remote.size(); i++) {
+                lag.record(Math.max(0, applied - sent[i]) * 1_000, false);
+            }
+        }
+    }
+
+    private void apply(List<Change> changes) {
+        if (changes.isEmpty()) return;
+        UserCache cache = UserCache.getInstance();
+        for (Change c : changes) {
+            if (c.kind() == Kind.ALL) {
+                cache.invalidateAll();
+                break;
+            }
+            if (c.kind() == Kind.USER) cache.invalidate(c.a());
+        }
+        for (Listener l : listeners) {
+            try {
+                l.onChanges(changes);
+            } catch (RuntimeException e) {
+                System.err.println("ChangeFeed: listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static long nowMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+}
@@ -0,0 +1,40 @@
+package ducknetwork.repository;
+
+/**
+ * Componentele conexe ale grafului de prietenii, calculate în baza de date (fără să încarce graful în heap).
+ */
+public interface CommunityRepository {
+
+    /**
+     * O componentă conexă: id-ul (cel mai mic id de utilizator din ea) și numărul de utilizatori.
+     */
+    record Component(long id, long size) {}
+
+    @FunctionalInterface
+    interface ComponentSink {
+        void accept(long componentId, long size);
+    }
+
+    @FunctionalInterface
+    interface MemberSink {
+        void accept(long componentId, long userId);
+    }
+
+    /** Estimarea numărului de prietenii (0 dacă nu există încă statistici). */
+    long estimatedFriendships();
+
+    /**
+     * Componentele, de la cea mai mare la cea mai mică (la egalitate, după id).
+     * Fiecare apel recalculează componentele pe tot graful.
+     */
+    void components(ComponentSink sink);
+
+    /** Id-ul componentei utilizatorului, sau -1 dacă utilizatorul nu există. */
+    long componentOf(long userId);
+
+    /**
+     * Perechile (componentă, utilizator), ordonate după componentă și apoi după id-ul utilizatorului.
+     * Fiecare apel recalculează componentele pe tot graful.
+     */
+    void members(MemberSink sink);
+}
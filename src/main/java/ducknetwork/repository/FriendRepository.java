@@ -1,121 +1,27 @@
 package ducknetwork.repository;
 
-import ducknetwork.exceptions.DomainExceptions;
-import ducknetwork.persistence.Database;
+import ducknetwork.graph.FriendGraph;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 
 /**
- * Handles persistence operations for the Friends relationship, using the constraint user_id < friend_id.
+ * Prieteniile (relație simetrică, stocată o singură dată).
  */
-public class FriendRepository {
+public interface FriendRepository {
 
-    private final UserRepository userRepo = new UserRepository();
+    void addFriend(Long id1, Long id2);
 
-    /**
-     * Make two users friends (stored only once: minId -> maxId).
-     */
-    public void addFriend(Long id1, Long id2) {
-        if (Objects.equals(id1, id2)) throw new IllegalArgumentException("A user cannot befriend themselves");
-        ensureUserExists(id1);
-        ensureUserExists(id2);
+    void removeFriend(Long id1, Long id2);
 
-        Long minId = Math.min(id1, id2);
-        Long maxId = Math.max(id1, id2);
+    /** Adaugă mai multe prietenii (perechi de id-uri) într-o singură operație. */
+    void addFriends(Collection<long[]> pairs);
 
-        insertFriendship(minId, maxId);
-    }
+    /** Șterge mai multe prietenii (perechi de id-uri) într-o singură operație. */
+    void removeFriends(Collection<long[]> pairs);
 
-    private void insertFriendship(Long minId, Long maxId) {
-        String sql = "INSERT INTO friends (user_id, friend_id) VALUES (?, ?) ON CONFLICT (user_id, friend_id) DO NOTHING";
+    List<Long> getFriendIds(Long userId);
 
-        try (Connection conn = Database.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, minId);
-            ps.setLong(2, maxId);
-            ps.executeUpdate();
-
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to add friend: " + minId + " -> " + maxId, e);
-        }
-    }
-
-    /**
-     * Remove friendship bilateral (ștergem o singură înregistrare: minId -> maxId).
-     */
-    public void removeFriend(Long id1, Long id2) {
-        ensureUserExists(id1);
-        ensureUserExists(id2);
-
-        Long minId = Math.min(id1, id2);
-        Long maxId = Math.max(id1, id2);
-
-        deleteFriendship(minId, maxId);
-    }
-
-    private void deleteFriendship(Long minId, Long maxId) {
-        String sql = "DELETE FROM friends WHERE user_id = ? AND friend_id = ?";
-
-        try (Connection conn = Database.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, minId);
-            ps.setLong(2, maxId);
-            ps.executeUpdate();
-
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to remove friend: " + minId + " -> " + maxId, e);
-        }
-    }
-
-    /**
-     * Return friend ids for a user, căutând în ambele coloane (user_id OR friend_id).
-     */
-    public List<Long> getFriendIds(Long userId) {
-        ensureUserExists(userId);
-
-        List<Long> friendIds = new ArrayList<>();
-
-        String sql = """
-            SELECT 
-                CASE
-                    WHEN user_id = ? THEN friend_id 
-                    ELSE user_id
-                END AS friend_id 
-            FROM friends 
-            WHERE user_id = ? OR friend_id = ?
-            """;
-
-        try (Connection conn = Database.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, userId);
-            ps.setLong(2, userId);
-            ps.setLong(3, userId);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    friendIds.add(rs.getLong("friend_id"));
-                }
-            }
-
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to get friends for user " + userId, e);
-        }
-
-        return friendIds;
-    }
-
-    private void ensureUserExists(Long id) {
-        if (!userRepo.existsById(id)) {
-            throw new DomainExceptions.UserNotFoundException("User with id " + id + " not found");
-        }
-    }
-}
\ No newline at end of file
+    /** Snapshot CSR al întregului graf de prietenii (inclusiv utilizatorii fără prieteni). */
+    FriendGraph loadGraph();
+}
@@ -0,0 +1,360 @@
+package ducknetwork.repository;
+
+import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.persistence.Database;
+import ducknetwork.util.Validators;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Import în masă pentru utilizatori și prietenii.
+ * Fișierul (CSV cu header sau NDJSON, după extensie) este citit pe bucăți, fiecare bucată este validată
+ * în paralel cu {@link Validators}, iar rândurile valide sunt trimise prin COPY (CopyManager din pgjdbc)
+ * într-o tabelă temporară de staging. La final datele sunt mutate în users / person_details / duck_details
+ * sau friends prin câteva instrucțiuni set-based, în aceeași tranzacție.
+ * <p>
+ * Coloane utilizatori: username, email, password, type (PERSON/DUCK), first_name, last_name, birth_date,
+ * occupation, empathy, duck_type, speed, endurance. Coloane prietenii: user1, user2 (username-uri).
+ */
+public class JdbcBulkImportRepository implements BulkImportRepository {
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    private static final String[] USER_COLUMNS = {
+            "username", "email", "password", "type",
+            "first_name", "last_name", "birth_date", "occupation", "empathy",
+            "duck_type", "speed", "endurance"
+    };
+    private static final String[] FRIEND_COLUMNS = {"user1", "user2"};
+
+    @Override
+    public ImportReport importUsers(Path file) {
+        String staging = """
+                CREATE TEMP TABLE staging_users (
+                    username text, email text, password text, type text,
+                    first_name text, last_name text, birth_date date, occupation text, empathy integer,
+                    duck_type text, speed double precision, endurance double precision
+                ) ON COMMIT DROP
+                """;
+        String[] merge = {
+                """
+                INSERT INTO users (username, email, password, type)
+                SELECT DISTINCT ON (username) username, email, password, type
+                FROM staging_users
+                ORDER BY username
+                ON CONFLICT DO NOTHING
+                """,
+                """
+                INSERT INTO person_details (user_id, first_name, last_name, birth_date, occupation, empathy)
+                SELECT DISTINCT ON (u.id) u.id, s.first_name, s.last_name, s.birth_date, s.occupation, s.empathy
+                FROM staging_users s
+                JOIN users u ON u.username = s.username AND u.type = 'PERSON'
+                WHERE s.type = 'PERSON'
+                  AND NOT EXISTS (SELECT 1 FROM person_details p WHERE p.user_id = u.id)
+                """,
+                """
+                INSERT INTO duck_details (user_id, type, speed, endurance)
+                SELECT DISTINCT ON (u.id) u.id, s.duck_type, s.speed, s.endurance
+                FROM staging_users s
+                JOIN users u ON u.username = s.username AND u.type = 'DUCK'
+                WHERE s.type = 'DUCK'
+                  AND NOT EXISTS (SELECT 1 FROM duck_details d WHERE d.user_id = u.id)
+                """
+        };
+        return runImport(file, USER_COLUMNS, staging, "staging_users", merge, JdbcBulkImportRepository::validateUser);
+    }
+
+    @Override
+    public ImportReport importFriendships(Path file) {
+        String staging = "CREATE TEMP TABLE staging_friends (user1 text, user2 text) ON COMMIT DROP";
+        String[] merge = {
+                """
+                INSERT INTO friends (user_id, friend_id)
+                SELECT DISTINCT LEAST(a.id, b.id), GREATEST(a.id, b.id)
+                FROM staging_friends s
+                JOIN users a ON a.username = s.user1
+                JOIN users b ON b.username = s.user2
+                WHERE a.id <> b.id
+                ON CONFLICT (user_id, friend_id) DO NOTHING
+                """
+        };
+        return runImport(file, FRIEND_COLUMNS, staging, "staging_friends", merge, JdbcBulkImportRepository::validateFriendship);
+    }
+
+    private interface RowValidator {
+        /** Throws ValidationException (or a parse exception) if the row must be rejected. */
+        void validate(String[] row);
+    }
+
+    private ImportReport runImport(Path file, String[] columns, String stagingDdl, String stagingTable,
+                                   String[] mergeSql, RowValidator validator) {
+        long start = System.nanoTime();
+        long read = 0, rejected = 0, inserted;
+        boolean ndjson = isNdjson(file);
+
+        try (Connection conn = Database.getInstance().getConnection();
+             BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+
+            conn.setAutoCommit(false);
+            try {
+                try (Statement st = conn.createStatement()) {
+                    st.execute(stagingDdl);
+                }
+
+                int[] layout = ndjson ? null : csvLayout(in.readLine(), columns);
+                CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY " + stagingTable + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)");
+                try {
+                    List<String> lines = new ArrayList<>(CHUNK_SIZE);
+                    String line;
+                    boolean eof = false;
+                    while (!eof) {
+                        lines.clear();
+                        while (lines.size() < CHUNK_SIZE && (line = in.readLine()) != null) {
+                            if (!line.isBlank()) lines.add(line);
+                        }
+                        eof = lines.size() < CHUNK_SIZE;
+                        if (lines.isEmpty()) break;
+
+                        // parse + validate in parallel, keep the file order for COPY
+                        List<String> encoded = lines.parallelStream()
+                                .map(l -> toCopyLine(l, ndjson, layout, columns, validator))
+                                .toList();
+
+                        StringBuilder buf = new StringBuilder(encoded.size() * 64);
+                        for (String row : encoded) {
+                            if (row == null) rejected++;
+                            else buf.append(row);
+                        }
+                        read += lines.size();
+                        byte[] bytes = buf.toString().getBytes(StandardCharsets.UTF_8);
+                        copy.writeToCopy(bytes, 0, bytes.length);
+                    }
+                    copy.endCopy();
+                } finally {
+                    if (copy.isActive()) copy.cancelCopy();
+                }
+
+                // prima instructiune insereaza entitatea principala (users / friends), restul detaliile
+                try (Statement st = conn.createStatement()) {
+                    inserted = st.executeUpdate(mergeSql[0]);
+                    for (int i = 1; i < mergeSql.length; i++) {
+                        st.executeUpdate(mergeSql[i]);
+                    }
+                }
+                ChangeFeed.getInstance().publish(conn, ChangeFeed.Kind.ALL, 0, 0);
+                conn.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Bulk import from " + file + " failed: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + file + ": " + e.getMessage(), e);
+        }
+
+        return new ImportReport(read, rejected, inserted, System.nanoTime() - start);
+    }
+
+    /**
+     * Parses and validates one input line; returns the COPY csv line, or null if the row is rejected.
+     */
+    private static String toCopyLine(String line, boolean ndjson, int[] layout, String[] columns, RowValidator validator) {
+        String[] row;
+        try {
+            row = ndjson ? fromJson(line, columns) : fromCsv(line, layout, columns.length);
+            validator.validate(row);
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(line.length() + 16);
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) sb.append(',');
+            String v = row[i];
+            if (v == null || v.isEmpty()) continue; // unquoted empty = NULL
+            sb.append('"').append(v.replace("\"", "\"\"")).append('"');
+        }
+        return sb.append('\n').toString();
+    }
+
+    private static void validateUser(String[] r) {
+        Validators.validate(Validators.USERNAME_VALIDATOR, r[0]);
+        Validators.validate(Validators.EMAIL_VALIDATOR, r[1]);
+        r[0] = r[0].trim();
+        r[1] = r[1].trim();
+        String type = r[3] == null ? "" : r[3].trim().toUpperCase();
+        r[3] = type;
+        switch (type) {
+            case "PERSON" -> {
+                if (r[6] != null && !r[6].isBlank()) LocalDate.parse(r[6].trim());
+                if (r[8] == null || r[8].isBlank())
+                    throw new DomainExceptions.ValidationException("Empathy required");
+                Integer.parseInt(r[8].trim());
+            }
+            case "DUCK" -> {
+                String duckType = r[9] == null ? "" : r[9].trim().toUpperCase();
+                if (!duckType.equals("SWIMMING") && !duckType.equals("FLYING") && !duckType.equals("FLYING_AND_SWIMMING"))
+                    throw new DomainExceptions.ValidationException("Unknown duck type: " + r[9]);
+                r[9] = duckType;
+                Double.parseDouble(Objects.requireNonNull(r[10]).trim());
+                Double.parseDouble(Objects.requireNonNull(r[11]).trim());
+            }
+            default -> throw new DomainExceptions.ValidationException("Unknown user type: " + r[3]);
+        }
+    }
+
+    private static void validateFriendship(String[] r) {
+        Validators.validate(Validators.USERNAME_VALIDATOR, r[0]);
+        Validators.validate(Validators.USERNAME_VALIDATOR, r[1]);
+        r[0] = r[0].trim();
+        r[1] = r[1].trim();
+        if (r[0].equals(r[1]))
+            throw new DomainExceptions.ValidationException("A user cannot befriend themselves");
+    }
+
+    private static boolean isNdjson(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json");
+    }
+
+    /** Maps header columns to the expected column order: layout[i] = position in the file of columns[i]. */
+    private static int[] csvLayout(String header, String[] columns) {
+        if (header == null)
+            throw new DomainExceptions.ValidationException("Empty import file");
+        List<String> names = new ArrayList<>();
+        for (String h : splitCsv(header)) names.add(h.trim().toLowerCase());
+
+        int[] layout = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) layout[i] = names.indexOf(columns[i]);
+        return layout;
+    }
+
+    private static String[] fromCsv(String line, int[] layout, int width) {
+        List<String> fields = splitCsv(line);
+        String[] row = new String[width];
+        for (int i = 0; i < width; i++) {
+            int pos = layout[i];
+            row[i] = (pos >= 0 && pos < fields.size()) ? fields.get(pos) : null;
+        }
+        return row;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        fields.add(cur.toString());
+        return fields;
+    }
+
+    /**
+     * Parses a flat JSON object (string / number / boolean / null values) and picks the given keys.
+     */
+    private static String[] fromJson(String line, String[] columns) {
+        Map<String, String> values = new HashMap<>();
+        String s = line.trim();
+        if (!s.startsWith("{") || !s.endsWith("}"))
+            throw new DomainExceptions.ValidationException("Not a JSON object");
+        int i = 1, end = s.length() - 1;
+        while (true) {
+            i = skipWs(s, i);
+            if (i >= end) break;
+            StringBuilder key = new StringBuilder();
+            i = readJsonString(s, i, key);
+            i = skipWs(s, i);
+            if (s.charAt(i) != ':') throw new DomainExceptions.ValidationException("Malformed JSON");
+            i = skipWs(s, i + 1);
+            String value;
+            if (s.charAt(i) == '"') {
+                StringBuilder v = new StringBuilder();
+                i = readJsonString(s, i, v);
+                value = v.toString();
+            } else {
+                int j = i;
+                while (j < end && s.charAt(j) != ',' && !Character.isWhitespace(s.charAt(j))) j++;
+                value = s.substring(i, j);
+                if (value.equals("null")) value = null;
+                i = j;
+            }
+            values.put(key.toString().toLowerCase(), value);
+            i = skipWs(s, i);
+            if (i < end && s.charAt(i) == ',') i++;
+        }
+
+        String[] row = new String[columns.length];
+        for (int c = 0; c < columns.length; c++) row[c] = values.get(columns[c]);
+        return row;
+    }
+
+    private static int skipWs(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static int readJsonString(String s, int i, StringBuilder out) {
+        if (s.charAt(i) != '"') throw new DomainExceptions.ValidationException("Malformed JSON");
+        i++;
+        while (s.charAt(i) != '"') {
+            char c = s.charAt(i);
+            if (c == '\\') {
+                char e = s.charAt(++i);
+                switch (e) {
+                    case 'n' -> out.append('\n');
+                    case 't' -> out.append('\t');
+                    case 'r' -> out.append('\r');
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'u' -> {
+                        out.append((char) Integer.parseInt(s.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                    default -> out.append(e);
+                }
+            } else {
+                out.append(c);
+            }
+            i++;
+        }
+        return i + 1;
+    }
+}
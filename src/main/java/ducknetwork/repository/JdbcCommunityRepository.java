@@ -0,0 +1,191 @@
+package ducknetwork.repository;
+
+import ducknetwork.persistence.Database;
+import ducknetwork.util.AppConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Componentele conexe ale grafului de prietenii, calculate în PostgreSQL, pentru grafuri prea mari
+ * pentru a fi încărcate în heap (vezi {@code FriendRepository.loadGraph}).
+ * <p>
+ * Label propagation pe tabele temporare: fiecare utilizator pornește cu eticheta = propriul id, iar la fiecare
+ * rundă preia cea mai mică etichetă a vecinilor (doar de la vecinii schimbați în runda precedentă), urmată de
+ * un pas de pointer jumping (eticheta etichetei), care scurtează lanțurile lungi. Totul prin UPDATE-uri
+ * set-based, până nu se mai schimbă nimic. La convergență eticheta este cel mai mic id din componentă,
+ * folosit ca id al componentei. În Java ajunge doar o trecere streaming (cursor pe server) peste rezultat.
+ * <p>
+ * Există doar pentru PostgreSQL ({@code communities} este null în memorie).
+ */
+public class JdbcCommunityRepository implements CommunityRepository {
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private static final String[] SETUP = {
+            // ambele direcții, ca propagarea să fie un simplu join pe src
+            """
+            CREATE TEMP TABLE cc_edge ON COMMIT DROP AS
+            SELECT user_id AS src, friend_id AS dst FROM friends
+            UNION ALL
+            SELECT friend_id, user_id FROM friends
+            """,
+            "CREATE INDEX ON cc_edge (src)",
+            """
+            CREATE TEMP TABLE cc_label ON COMMIT DROP AS
+            SELECT id, id AS label, 0 AS round FROM users
+            """,
+            "ALTER TABLE cc_label ADD PRIMARY KEY (id)",
+            // autovacuum nu analizează tabelele temporare
+            "ANALYZE cc_edge",
+            "ANALYZE cc_label"
+    };
+
+    // vecinii nodurilor schimbate în runda precedentă primesc minimul etichetelor acestora
+    private static final String PROPAGATE = """
+            UPDATE cc_label l SET label = m.label, round = ?
+            FROM (SELECT e.dst AS id, min(s.label) AS label
+                  FROM cc_label s JOIN cc_edge e ON e.src = s.id
+                  WHERE s.round = ?
+                  GROUP BY e.dst) m
+            WHERE l.id = m.id AND m.label < l.label
+            """;
+
+    // eticheta unui nod este un nod din aceeași componentă: preia eticheta acestuia, dacă e mai mică
+    private static final String JUMP = """
+            UPDATE cc_label l SET label = p.label, round = ?
+            FROM cc_label p
+            WHERE p.id = l.label AND p.label < l.label
+            """;
+
+    // doar componenta utilizatorului: BFS recursiv, UNION elimină nodurile deja atinse
+    private static final String COMPONENT_OF = """
+            WITH RECURSIVE reach(id) AS (
+                SELECT id FROM users WHERE id = ?
+                UNION
+                SELECT n.id
+                FROM reach r
+                CROSS JOIN LATERAL (SELECT friend_id AS id FROM friends WHERE user_id = r.id
+                                    UNION ALL
+                                    SELECT user_id FROM friends WHERE friend_id = r.id) n
+            )
+            SELECT min(id) FROM reach
+            """;
+
+    /**
+     * Estimarea numărului de prietenii din statisticile planner-ului (fără COUNT(*) pe tabelă);
+     * 0 dacă tabela nu a fost încă analizată.
+     */
+    @Override
+    public long estimatedFriendships() {
+        String sql = "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = 'friends'::regclass";
+        try (Connection conn = Database.getInstance().getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to estimate friendship count: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Componentele, de la cea mai mare la cea mai mică (la egalitate, după id).
+     */
+    @Override
+    public void components(ComponentSink sink) {
+        run("SELECT label, count(*) FROM cc_label GROUP BY label ORDER BY count(*) DESC, label",
+                rs -> sink.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    /**
+     * Id-ul componentei utilizatorului (cel mai mic id din ea), fără label propagation pe tot graful:
+     * se parcurge doar componenta lui. -1 dacă utilizatorul nu există.
+     */
+    @Override
+    public long componentOf(long userId) {
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(COMPONENT_OF)) {
+            ps.setLong(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return -1;
+                long id = rs.getLong(1);
+                return rs.wasNull() ? -1 : id;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find the component of user " + userId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Perechile (componentă, utilizator), ordonate după componentă și apoi după id-ul utilizatorului.
+     */
+    @Override
+    public void members(MemberSink sink) {
+        run("SELECT label, id FROM cc_label ORDER BY label, id",
+                rs -> sink.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Calculează etichetele într-o tranzacție (tabelele temporare dispar la commit) și trimite
+     * rezultatul interogării finale, rând cu rând, către handler.
+     */
+    private void run(String resultSql, RowHandler handler) {
+        try (Connection conn = Database.getInstance().getConnection()) {
+            conn.setAutoCommit(false); // tabele ON COMMIT DROP + cursor pe server pentru rezultat
+            try {
+                try (PreparedStatement ps = conn.prepareStatement("SELECT set_config('work_mem', ?, true)")) {
+                    ps.setString(1, AppConfig.get("communities.db.workMem", "256MB")); // doar pentru tranzacția curentă
+                    ps.execute();
+                }
+                try (Statement st = conn.createStatement()) {
+                    for (String sql : SETUP) {
+                        st.execute(sql);
+                    }
+                }
+                propagate(conn);
+
+                try (Statement st = conn.createStatement()) {
+                    st.setFetchSize(STREAM_FETCH_SIZE);
+                    try (ResultSet rs = st.executeQuery(resultSql)) {
+                        while (rs.next()) {
+                            handler.handle(rs);
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to compute connected components: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runde de propagare + pointer jumping, până când o rundă nu mai schimbă nicio etichetă.
+     */
+    private void propagate(Connection conn) throws SQLException {
+        try (PreparedStatement propagate = conn.prepareStatement(PROPAGATE);
+             PreparedStatement jump = conn.prepareStatement(JUMP)) {
+            for (int round = 1; ; round++) {
+                propagate.setInt(1, round);
+                propagate.setInt(2, round - 1);
+                int changed = propagate.executeUpdate();
+
+                jump.setInt(1, round);
+                changed += jump.executeUpdate();
+                if (changed == 0) return;
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package ducknetwork.repository;
+
+import ducknetwork.domain.*;
+import ducknetwork.persistence.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class JdbcDuckRepository implements DuckRepository {
+
+    private final UserCache cache = UserCache.getInstance();
+
+    public void saveDetails(Connection conn, Duck d) throws SQLException {
+        if (d.getId() == null)
+            throw new RuntimeException("Duck must have user_id before saving details");
+
+        String sql = "INSERT INTO duck_details(user_id, type, speed, endurance) " +
+                "VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, d.getId());
+            ps.setString(2, d.getType());
+            ps.setDouble(3, d.getSpeed());
+            ps.setDouble(4, d.getEndurance());
+
+            ps.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving duck details for id " + d.getId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<Duck> findById(Long id) {
+        User cached = cache.get(id);
+        if (cached != null) {
+            return (cached instanceof Duck d) ? Optional.of(d) : Optional.empty();
+        }
+
+        String sql = """
+                SELECT u.id, u.username, u.email, u.password, 
+                       d.type, d.speed, d.endurance
+                FROM users u 
+                JOIN duck_details d ON d.user_id = u.id 
+                WHERE u.id = ? AND u.type = 'DUCK'
+                """;
+        long stamp = cache.stamp();
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+
+                Long uid = rs.getLong("id");
+                String username = rs.getString("username");
+                String email = rs.getString("email");
+                String password = rs.getString("password");
+
+                String type = rs.getString("type");
+                double speed = rs.getDouble("speed");
+                double endurance = rs.getDouble("endurance");
+
+                Duck d = createDuckInstance(uid, username, email, password, speed, endurance, type);
+                cache.put(d, stamp);
+
+                return Optional.of(d);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding duck by id " + id, e);
+        }
+    }
+
+    @Override
+    public List<Duck> findAll() {
+        List<Duck> list = new ArrayList<>();
+
+        String sql = """
+                SELECT u.id, u.username, u.email, u.password, 
+                       d.type, d.speed, d.endurance 
+                FROM users u 
+                JOIN duck_details d ON d.user_id = u.id 
+                WHERE u.type = 'DUCK'
+                ORDER BY u.id
+                """;
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                Long id = rs.getLong("id");
+                String username = rs.getString("username");
+                String email = rs.getString("email");
+                String password = rs.getString("password");
+
+                String type = rs.getString("type");
+                double speed = rs.getDouble("speed");
+                double endurance = rs.getDouble("endurance");
+
+                Duck d = createDuckInstance(id, username, email, password, speed, endurance, type);
+
+                list.add(d);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading all ducks: " + e.getMessage(), e);
+        }
+
+        return list;
+    }
+
+    /**
+     * Cei mai buni M înotători (SWIMMING și FLYING_AND_SWIMMING), după endurance DESC, speed DESC, apoi id
+     * (aceeași ordine ca în memorie, deci selecția e deterministă la egalitate).
+     * Fiecare tip este citit ordonat din indexul (type, endurance DESC, speed DESC, user_id) și limitat la M,
+     * apoi cele două liste sunt interclasate; costul depinde de M, nu de numărul total de rațe.
+     * Parola nu este încărcată.
+     */
+    @Override
+    public List<Duck> findTopSwimmers(int m) {
+        List<Duck> list = new ArrayList<>(Math.max(m, 0));
+        if (m <= 0) return list;
+
+        String perType = """
+                SELECT u.id, u.username, u.email, d.type, d.speed, d.endurance
+                FROM duck_details d
+                JOIN users u ON u.id = d.user_id
+                WHERE d.type = '%s'
+                ORDER BY d.endurance DESC, d.speed DESC, d.user_id
+                LIMIT ?
+                """;
+        String sql = "SELECT * FROM ((" + perType.formatted("SWIMMING") + ") UNION ALL ("
+                + perType.formatted("FLYING_AND_SWIMMING") + ")) s "
+                + "ORDER BY s.endurance DESC, s.speed DESC, s.id LIMIT ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, m);
+            ps.setInt(2, m);
+            ps.setInt(3, m);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(createDuckInstance(rs.getLong("id"), rs.getString("username"), rs.getString("email"),
+                            null, rs.getDouble("speed"), rs.getDouble("endurance"), rs.getString("type")));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading top " + m + " swimmers: " + e.getMessage(), e);
+        }
+
+        return list;
+    }
+
+    public static Duck createDuckInstance(Long id, String username, String email, String password,
+                                           double speed, double endurance, String type) {
+
+        switch (type) {
+            case "SWIMMING":
+                return new SwimmingDuck(id, username, email, password, speed, endurance);
+
+            case "FLYING":
+                return new FlyingDuck(id, username, email, password, speed, endurance);
+
+            case "FLYING_AND_SWIMMING":
+                return new FlyingAndSwimmingDuck(id, username, email, password, speed, endurance);
+
+            default:
+                throw new RuntimeException("Unknown duck type in DB: " + type);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,229 @@
+package ducknetwork.repository;
+
+import ducknetwork.domain.Event;
+import ducknetwork.domain.RaceEvent;
+import ducknetwork.persistence.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class JdbcEventRepository implements EventRepository {
+
+    private final RaceBuoyRepository raceBuoyRepo = new RaceBuoyRepository();
+    private final ChangeFeed changes = ChangeFeed.getInstance();
+
+    // Nu mai exista dependentele UserRepository/EventSubscriberRepository in aceasta logica de incarcare
+
+    private static final String SELECT_EVENTS = """
+            SELECT e.id, e.name, e.type,
+                   array_agg(b.distance::float8 ORDER BY b.position) FILTER (WHERE b.race_event_id IS NOT NULL) AS buoys
+            FROM events e
+            LEFT JOIN race_buoys b ON b.race_event_id = e.id
+            """;
+
+    @Override
+    public Event save(String name) {
+        String sql = "INSERT INTO events (name, type) VALUES (?, 'EVENT') RETURNING id";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    long id = rs.getLong("id");
+                    return new Event(id, name);
+                } else {
+                    throw new RuntimeException("Failed to retrieve generated event id");
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to insert generic event: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public RaceEvent saveRaceEvent(String name, List<Double> buoys) {
+        String eventSql = "INSERT INTO events (name, type) VALUES (?, 'RACE') RETURNING id";
+        Connection conn = null;
+
+        try {
+            conn = Database.getInstance().getConnection();
+            conn.setAutoCommit(false);
+
+            long id;
+            try (PreparedStatement ps = conn.prepareStatement(eventSql)) {
+                ps.setString(1, name);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        id = rs.getLong("id");
+                    } else {
+                        conn.rollback();
+                        throw new RuntimeException("Failed to retrieve generated race event id");
+                    }
+                }
+            }
+
+            raceBuoyRepo.saveBuoys(conn, id, buoys);
+
+            conn.commit();
+            return new RaceEvent(id, name, buoys);
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ignore) {}
+            }
+            throw new RuntimeException("Failed to create race event: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException ignore) {}
+                try {
+                    conn.close();
+                } catch (SQLException ignore) {}
+            }
+        }
+    }
+
+    /**
+     * Șterge evenimentul; abonații și rezultatele curselor lui dispar în cascadă, iar cel mai bun timp al
+     * rațelor care au concurat este recalculat în aceeași tranzacție din rezultatele rămase.
+     */
+    @Override
+    public void delete(Long eventId) {
+        try (Connection conn = Database.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement lock = conn.prepareStatement("SELECT id FROM events WHERE id = ? FOR UPDATE");
+                 PreparedStatement results = conn.prepareStatement(
+                         "DELETE FROM race_results WHERE race_event_id = ? RETURNING duck_id");
+                 PreparedStatement event = conn.prepareStatement("DELETE FROM events WHERE id = ?")) {
+
+                // așteaptă cursele care salvează chiar acum rezultate pentru eveniment și le oprește pe următoarele
+                lock.setLong(1, eventId);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.commit();
+                        return;
+                    }
+                }
+
+                Set<Long> ducks = new TreeSet<>();
+                results.setLong(1, eventId);
+                try (ResultSet rs = results.executeQuery()) {
+                    while (rs.next()) ducks.add(rs.getLong(1));
+                }
+                event.setLong(1, eventId);
+                event.executeUpdate();
+                JdbcRaceResultRepository.refreshBestTimes(conn, ducks);
+                changes.publish(conn, ChangeFeed.Kind.SUBSCRIPTION, eventId, 0);
+
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to delete event " + eventId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * ATENTIE: Aceasta metoda nu mai populeaza lista de subscribers din obiectul Event.
+     * Bilele (buoys) unei curse vin in aceeasi interogare, agregate in ordinea pozitiei.
+     */
+    @Override
+    public Optional<Event> findById(Long eventId) {
+        String sql = SELECT_EVENTS + " WHERE e.id = ? GROUP BY e.id, e.name, e.type";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapEvent(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find event " + eventId + ": " + e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * ATENTIE: Aceasta metoda nu mai populeaza lista de subscribers din obiectul Event.
+     * Toate evenimentele, impreuna cu bilele curselor, intr-un singur round-trip.
+     */
+    @Override
+    public List<Event> findAll() {
+        List<Event> events = new ArrayList<>();
+        String sql = SELECT_EVENTS + " GROUP BY e.id, e.name, e.type ORDER BY e.id";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                events.add(mapEvent(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load events: " + e.getMessage(), e);
+        }
+        return events;
+    }
+
+    /**
+     * O pagină de evenimente (keyset): id > afterId, ordonate după id, cel mult limit.
+     * Limita se aplică pe events înainte de join, deci se agregă doar bilele paginii curente.
+     */
+    @Override
+    public List<Event> findPage(long afterId, int limit) {
+        List<Event> events = new ArrayList<>(limit);
+        String sql = """
+                SELECT e.id, e.name, e.type,
+                       array_agg(b.distance::float8 ORDER BY b.position) FILTER (WHERE b.race_event_id IS NOT NULL) AS buoys
+                FROM (SELECT id, name, type FROM events WHERE id > ? ORDER BY id LIMIT ?) e
+                LEFT JOIN race_buoys b ON b.race_event_id = e.id
+                GROUP BY e.id, e.name, e.type
+                ORDER BY e.id
+                """;
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    events.add(mapEvent(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load events after id " + afterId + ": " + e.getMessage(), e);
+        }
+        return events;
+    }
+
+    static Event mapEvent(ResultSet rs) throws SQLException {
+        long id = rs.getLong("id");
+        String name = rs.getString("name");
+
+        if ("RACE".equals(rs.getString("type"))) {
+            return new RaceEvent(id, name, RaceBuoyRepository.toDoubles(rs.getArray("buoys")));
+        }
+        return new Event(id, name);
+    }
+}
@@ -0,0 +1,111 @@
+package ducknetwork.repository;
+
+import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.persistence.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+public class JdbcEventSubscriberRepository implements EventSubscriberRepository {
+
+    private final JdbcEventRepository eventRepo = new JdbcEventRepository();
+    private final JdbcUserRepository userRepo = new JdbcUserRepository();
+    private final ChangeFeed changes = ChangeFeed.getInstance();
+
+    @Override
+    public void subscribe(Long eventId, Long userId) {
+        if (eventRepo.findById(eventId).isEmpty()) {
+            throw new RuntimeException("Event not found");
+        }
+        if (!userRepo.existsById(userId)) {
+            throw new DomainExceptions.UserNotFoundException("User not found");
+        }
+
+        String sql = "INSERT INTO event_subscribers (event_id, user_id) VALUES (?, ?) ON CONFLICT (event_id, user_id) DO NOTHING";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, eventId);
+            ps.setLong(2, userId);
+            if (ps.executeUpdate() > 0) changes.publish(conn, ChangeFeed.Kind.SUBSCRIPTION, eventId, userId);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to subscribe user " + userId + " to event " + eventId + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void unsubscribe(Long eventId, Long userId) {
+        String sql = "DELETE FROM event_subscribers WHERE event_id = ? AND user_id = ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, eventId);
+            ps.setLong(2, userId);
+            if (ps.executeUpdate() > 0) changes.publish(conn, ChangeFeed.Kind.SUBSCRIPTION, eventId, userId);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to unsubscribe user " + userId + " from event " + eventId + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Long> findSubscribers(Long eventId) {
+        List<Long> list = new ArrayList<>();
+
+        String sql = "SELECT user_id FROM event_subscribers WHERE event_id = ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(rs.getLong("user_id"));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load subscribers for event " + eventId + ": " + e.getMessage(), e);
+        }
+
+        return list;
+    }
+
+    /**
+     * O bucată de abonați (keyset pe user_id): user_id > afterUserId, ordonați, cel mult limit.
+     */
+    @Override
+    public long[] findSubscribersPage(Long eventId, long afterUserId, int limit) {
+        long[] ids = new long[limit];
+        int n = 0;
+
+        String sql = "SELECT user_id FROM event_subscribers WHERE event_id = ? AND user_id > ? ORDER BY user_id LIMIT ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, eventId);
+            ps.setLong(2, afterUserId);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids[n++] = rs.getLong("user_id");
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load subscribers for event " + eventId + ": " + e.getMessage(), e);
+        }
+
+        return n == limit ? ids : Arrays.copyOf(ids, n);
+    }
+}
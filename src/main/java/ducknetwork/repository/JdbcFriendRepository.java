@@ -0,0 +1,253 @@
+package ducknetwork.repository;
+
+import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.graph.FriendGraph;
+import ducknetwork.persistence.Database;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Handles persistence operations for the Friends relationship, using the constraint user_id < friend_id.
+ */
+public class JdbcFriendRepository implements FriendRepository {
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcUserRepository userRepo = new JdbcUserRepository();
+    private final ChangeFeed changes = ChangeFeed.getInstance();
+
+    /**
+     * Make two users friends (stored only once: minId -> maxId).
+     */
+    @Override
+    public void addFriend(Long id1, Long id2) {
+        if (Objects.equals(id1, id2)) throw new IllegalArgumentException("A user cannot befriend themselves");
+        ensureUserExists(id1);
+        ensureUserExists(id2);
+
+        Long minId = Math.min(id1, id2);
+        Long maxId = Math.max(id1, id2);
+
+        insertFriendship(minId, maxId);
+    }
+
+    private void insertFriendship(Long minId, Long maxId) {
+        String sql = "INSERT INTO friends (user_id, friend_id) VALUES (?, ?) ON CONFLICT (user_id, friend_id) DO NOTHING";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, minId);
+            ps.setLong(2, maxId);
+            if (ps.executeUpdate() > 0) changes.publish(conn, ChangeFeed.Kind.FRIENDSHIP, minId, maxId);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to add friend: " + minId + " -> " + maxId, e);
+        }
+    }
+
+    /**
+     * Remove friendship bilateral (ștergem o singură înregistrare: minId -> maxId).
+     */
+    @Override
+    public void removeFriend(Long id1, Long id2) {
+        ensureUserExists(id1);
+        ensureUserExists(id2);
+
+        Long minId = Math.min(id1, id2);
+        Long maxId = Math.max(id1, id2);
+
+        deleteFriendship(minId, maxId);
+    }
+
+    private void deleteFriendship(Long minId, Long maxId) {
+        String sql = "DELETE FROM friends WHERE user_id = ? AND friend_id = ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, minId);
+            ps.setLong(2, maxId);
+            if (ps.executeUpdate() > 0) changes.publish(conn, ChangeFeed.Kind.FRIENDSHIP, minId, maxId);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to remove friend: " + minId + " -> " + maxId, e);
+        }
+    }
+
+    /**
+     * Adaugă mai multe prietenii într-o singură tranzacție: perechile sunt normalizate (minId -> maxId),
+     * existența tuturor utilizatorilor este verificată cu o singură interogare, iar inserările merg
+     * prin JDBC batching (rescrise de driver în INSERT-uri multi-row, vezi reWriteBatchedInserts).
+     */
+    @Override
+    public void addFriends(Collection<long[]> pairs) {
+        writeBatch(pairs, "INSERT INTO friends (user_id, friend_id) VALUES (?, ?) ON CONFLICT (user_id, friend_id) DO NOTHING",
+                "Failed to add friendships");
+    }
+
+    /**
+     * Șterge mai multe prietenii într-o singură tranzacție (JDBC batch).
+     */
+    @Override
+    public void removeFriends(Collection<long[]> pairs) {
+        writeBatch(pairs, "DELETE FROM friends WHERE user_id = ? AND friend_id = ?",
+                "Failed to remove friendships");
+    }
+
+    private void writeBatch(Collection<long[]> pairs, String sql, String errorMessage) {
+        if (pairs == null || pairs.isEmpty()) return;
+
+        long[][] normalized = new long[pairs.size()][];
+        Set<Long> ids = new HashSet<>();
+        int k = 0;
+        for (long[] pair : pairs) {
+            if (pair == null || pair.length != 2)
+                throw new IllegalArgumentException("Each friendship must be a pair of ids");
+            if (pair[0] == pair[1])
+                throw new IllegalArgumentException("A user cannot befriend themselves");
+            normalized[k++] = new long[]{Math.min(pair[0], pair[1]), Math.max(pair[0], pair[1])};
+            ids.add(pair[0]);
+            ids.add(pair[1]);
+        }
+
+        try (Connection conn = Database.getInstance().getConnection()) {
+            ensureUsersExist(conn, ids);
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int pending = 0;
+                for (long[] pair : normalized) {
+                    ps.setLong(1, pair[0]);
+                    ps.setLong(2, pair[1]);
+                    ps.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) ps.executeBatch();
+                changes.publish(conn, ChangeFeed.Kind.FRIENDSHIP, 0, 0); // un singur mesaj per lot
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Verifică existența unui set de utilizatori cu o singură interogare.
+     */
+    private void ensureUsersExist(Connection conn, Set<Long> ids) throws SQLException {
+        Set<Long> missing = new HashSet<>(ids);
+        Array idArray = conn.createArrayOf("bigint", ids.toArray());
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id FROM users WHERE id = ANY(?)")) {
+            ps.setArray(1, idArray);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    missing.remove(rs.getLong(1));
+                }
+            }
+        } finally {
+            idArray.free();
+        }
+        if (!missing.isEmpty()) {
+            throw new DomainExceptions.UserNotFoundException("Users not found: " + missing);
+        }
+    }
+
+    /**
+     * Return friend ids for a user, ascending. O prietenie este stocată o singură dată (user_id < friend_id),
+     * deci vecinii sunt friend_id din rândurile cu user_id = ? plus user_id din rândurile cu friend_id = ?.
+     * Cele două ramuri ale UNION ALL sunt scanări de interval pe cheia unică (user_id, friend_id) și pe
+     * idx_friends_friend_user (friend_id, user_id), combinate ordonat (Merge Append): O(grad), fără OR.
+     */
+    @Override
+    public List<Long> getFriendIds(Long userId) {
+        ensureUserExists(userId);
+
+        List<Long> friendIds = new ArrayList<>();
+
+        String sql = """
+            SELECT friend_id FROM friends WHERE user_id = ?
+            UNION ALL
+            SELECT user_id FROM friends WHERE friend_id = ?
+            ORDER BY friend_id
+            """;
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, userId);
+            ps.setLong(2, userId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    friendIds.add(rs.getLong("friend_id"));
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to get friends for user " + userId, e);
+        }
+
+        return friendIds;
+    }
+
+    /**
+     * Încarcă întregul graf de prietenii într-un snapshot CSR: o trecere pe users (pentru nodurile izolate)
+     * și o singură interogare streaming pe friends, cu cursor pe server (fetchSize).
+     */
+    @Override
+    public FriendGraph loadGraph() {
+        FriendGraph.Builder builder = new FriendGraph.Builder();
+
+        try (Connection conn = Database.getInstance().getConnection()) {
+            conn.setAutoCommit(false); // pgjdbc foloseste cursorul doar in afara autocommit
+            try (Statement st = conn.createStatement()) {
+                st.setFetchSize(STREAM_FETCH_SIZE);
+
+                try (ResultSet rs = st.executeQuery("SELECT id FROM users")) {
+                    while (rs.next()) {
+                        builder.addNode(rs.getLong(1));
+                    }
+                }
+                try (ResultSet rs = st.executeQuery("SELECT user_id, friend_id FROM friends")) {
+                    while (rs.next()) {
+                        builder.addEdge(rs.getLong(1), rs.getLong(2));
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load friendship graph: " + e.getMessage(), e);
+        }
+
+        return builder.build();
+    }
+
+    private void ensureUserExists(Long id) {
+        if (!userRepo.existsById(id)) {
+            throw new DomainExceptions.UserNotFoundException("User with id " + id + " not found");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+package ducknetwork.repository;
+
+import ducknetwork.domain.Duck;
+import ducknetwork.persistence.Database;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rezultatele curselor (race_results) și clasamentele derivate din ele.
+ * Pe lângă rândurile brute se întreține tabela duck_best_times (cel mai bun timp și numărul de curse per rață),
+ * actualizată în aceeași tranzacție, astfel încât clasamentul general să fie o scanare de index limitată
+ * și nu o agregare peste toate rezultatele.
+ */
+public class JdbcRaceResultRepository implements RaceResultRepository {
+
+    private static final String INSERT_RESULT =
+            "INSERT INTO race_results (race_event_id, duck_id, lane, time_seconds, finished_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_BEST =
+            "INSERT INTO duck_best_times (duck_id, best_time, races) VALUES (?, ?, 1) " +
+                    "ON CONFLICT (duck_id) DO UPDATE SET " +
+                    "best_time = LEAST(duck_best_times.best_time, EXCLUDED.best_time), " +
+                    "races = duck_best_times.races + 1";
+
+    // rândurile de recalculat se blochează întâi, în ordinea cheilor (ca în saveResults): agregarea de după
+    // vede astfel și rezultatele unei curse concurente care tocmai a actualizat aceleași rațe
+    private static final String LOCK_BEST =
+            "SELECT duck_id FROM duck_best_times WHERE duck_id = ANY(?) ORDER BY duck_id FOR UPDATE";
+
+    private static final String REFRESH_BEST = """
+            UPDATE duck_best_times b SET best_time = r.best_time, races = r.races
+            FROM (SELECT duck_id, MIN(time_seconds) AS best_time, COUNT(*) AS races
+                  FROM race_results WHERE duck_id = ANY(?) GROUP BY duck_id) r
+            WHERE b.duck_id = r.duck_id
+            """;
+
+    private static final String DROP_BEST = """
+            DELETE FROM duck_best_times b
+            WHERE b.duck_id = ANY(?) AND NOT EXISTS (SELECT 1 FROM race_results r WHERE r.duck_id = b.duck_id)
+            """;
+
+    /**
+     * Recalculează din race_results cel mai bun timp și numărul de curse ale rațelor date, după ce le-au fost
+     * șterse rezultate (o rață fără niciun rezultat rămas iese din clasament). Rulează în tranzacția apelantului.
+     */
+    static void refreshBestTimes(Connection conn, Collection<Long> duckIds) throws SQLException {
+        if (duckIds.isEmpty()) return;
+        Array ids = conn.createArrayOf("bigint", duckIds.toArray());
+        try {
+            for (String sql : new String[]{LOCK_BEST, REFRESH_BEST, DROP_BEST}) {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setArray(1, ids);
+                    ps.execute();
+                }
+            }
+        } finally {
+            ids.free();
+        }
+    }
+
+    /**
+     * Salvează rezultatele unei curse (timpii în ordinea culoarelor) într-o singură tranzacție:
+     * un batch pentru race_results și unul pentru duck_best_times.
+     */
+    @Override
+    public void saveResults(Long raceEventId, Map<Duck, Double> times) {
+        if (times == null || times.isEmpty()) return;
+        Timestamp finishedAt = Timestamp.from(Instant.now());
+
+        try (Connection conn = Database.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(INSERT_RESULT);
+                 PreparedStatement upsert = conn.prepareStatement(UPSERT_BEST)) {
+
+                int lane = 1;
+                for (Map.Entry<Duck, Double> e : times.entrySet()) {
+                    insert.setLong(1, raceEventId);
+                    insert.setLong(2, e.getKey().getId());
+                    insert.setInt(3, lane++);
+                    insert.setDouble(4, e.getValue());
+                    insert.setTimestamp(5, finishedAt);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+
+                // ordine fixă a cheilor: curse concurente cu aceleași rațe nu se blochează reciproc
+                List<Map.Entry<Duck, Double>> byDuck = new ArrayList<>(times.entrySet());
+                byDuck.sort(Comparator.comparing(e -> e.getKey().getId()));
+                for (Map.Entry<Duck, Double> e : byDuck) {
+                    upsert.setLong(1, e.getKey().getId());
+                    upsert.setDouble(2, e.getValue());
+                    upsert.addBatch();
+                }
+                upsert.executeBatch();
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save results for race " + raceEventId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cel mai bun timp al unei rațe și locul ei în clasamentul general.
+     */
+    @Override
+    public Optional<LeaderboardEntry> findBestTime(Long duckId) {
+        String sql = "SELECT b.duck_id, u.username, b.best_time, b.races, " +
+                "(SELECT COUNT(*) FROM duck_best_times x " +
+                "WHERE (x.best_time, x.duck_id) < (b.best_time, b.duck_id)) + 1 AS rank " +
+                "FROM duck_best_times b JOIN users u ON u.id = b.duck_id WHERE b.duck_id = ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, duckId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+                return Optional.of(mapEntry(rs, rs.getInt("rank")));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load best time for duck " + duckId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Primele n rațe ale unui eveniment, după cel mai bun timp obținut în acel eveniment.
+     * Citește doar rândurile evenimentului, din indexul (race_event_id, duck_id, time_seconds).
+     */
+    @Override
+    public List<LeaderboardEntry> findTopForEvent(Long raceEventId, int n) {
+        String sql = "SELECT r.duck_id, u.username, r.best_time, r.races FROM (" +
+                "SELECT duck_id, MIN(time_seconds) AS best_time, COUNT(*) AS races " +
+                "FROM race_results WHERE race_event_id = ? GROUP BY duck_id" +
+                ") r JOIN users u ON u.id = r.duck_id ORDER BY r.best_time, r.duck_id LIMIT ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, raceEventId);
+            ps.setInt(2, n);
+            return readRanking(ps);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load leaderboard for event " + raceEventId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Clasamentul general: primele n rațe după cel mai bun timp din toate cursele
+     * (scanare limitată a indexului (best_time, duck_id)).
+     */
+    @Override
+    public List<LeaderboardEntry> findAllTimeRanking(int n) {
+        String sql = "SELECT b.duck_id, u.username, b.best_time, b.races " +
+                "FROM duck_best_times b JOIN users u ON u.id = b.duck_id " +
+                "ORDER BY b.best_time, b.duck_id LIMIT ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, n);
+            return readRanking(ps);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load all-time leaderboard: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<LeaderboardEntry> readRanking(PreparedStatement ps) throws SQLException {
+        List<LeaderboardEntry> list = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                list.add(mapEntry(rs, list.size() + 1));
+            }
+        }
+        return list;
+    }
+
+    private static LeaderboardEntry mapEntry(ResultSet rs, int rank) throws SQLException {
+        return new LeaderboardEntry(rank, rs.getLong("duck_id"), rs.getString("username"),
+                rs.getDouble("best_time"), rs.getLong("races"));
+    }
+}
@@ -0,0 +1,326 @@
+package ducknetwork.repository;
+
+import ducknetwork.domain.User;
+import ducknetwork.domain.Person;
+import ducknetwork.domain.Duck;
+import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.persistence.Database;
+import ducknetwork.util.Validators;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class JdbcUserRepository implements UserRepository {
+
+    static final String SELECT_USERS = """
+            SELECT u.id, u.username, u.email, u.password, u.type,
+                   p.user_id AS p_user_id, p.first_name, p.last_name, p.birth_date, p.occupation, p.empathy,
+                   d.type AS duck_type, d.speed, d.endurance
+            FROM users u
+            LEFT JOIN person_details p ON p.user_id = u.id AND u.type = 'PERSON'
+            LEFT JOIN duck_details d ON d.user_id = u.id AND u.type = 'DUCK'
+            """;
+
+    private static final int STREAM_FETCH_SIZE = 1_000;
+
+    private final UserCache cache = UserCache.getInstance();
+    private final ChangeFeed changes = ChangeFeed.getInstance();
+    private final PersonRepository personRepo = new PersonRepository();
+    private final JdbcDuckRepository duckRepo = new JdbcDuckRepository();
+
+    @Override
+    public User save(User user) {
+        if (user == null)
+            throw new IllegalArgumentException("User cannot be null");
+
+        Validators.validate(Validators.USERNAME_VALIDATOR, user.getUsername());
+        Validators.validate(Validators.EMAIL_VALIDATOR, user.getEmail());
+
+        String sql = "INSERT INTO users(username, email, password, type) VALUES (?, ?, ?, ?) RETURNING id";
+        Connection conn = null;
+
+        try {
+            conn = Database.getInstance().getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setString(1, user.getUsername());
+                ps.setString(2, user.getEmail());
+                ps.setString(3, user.getPassword());
+                ps.setString(4, (user instanceof Duck) ? "DUCK" : "PERSON");
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        long newId = rs.getLong("id");
+                        user.setId(newId);
+                    } else {
+                        conn.rollback();
+                        throw new RuntimeException("Failed to retrieve generated user id");
+                    }
+                }
+            }
+
+
+            User result;
+            if (user instanceof Person p) {
+                personRepo.saveDetails(conn, p);
+                result = p;
+            } else if (user instanceof Duck d) {
+                duckRepo.saveDetails(conn, d);
+                result = d;
+            } else {
+                conn.rollback();
+                throw new IllegalArgumentException("Unsupported User subtype: " + user.getClass());
+            }
+
+            changes.publish(conn, ChangeFeed.Kind.USER, result.getId(), 0);
+            conn.commit();
+            cache.invalidate(result.getId());
+            return result;
+
+        } catch (Exception e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ignore) {}
+            }
+            if (e instanceof SQLException sqlE && "23505".equals(sqlE.getSQLState())) {
+                throw new RuntimeException("Duplicate username or email: " + sqlE.getMessage(), sqlE);
+            }
+            throw new RuntimeException("Error adding user: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException ignore) {}
+                try {
+                    conn.close();
+                } catch (SQLException ignore) {}
+            }
+        }
+    }
+
+    @Override
+    public void delete(long id) {
+        if (findById(id) == null) {
+            throw new DomainExceptions.UserNotFoundException("User with id " + id + " not found");
+        }
+
+        String sql = "DELETE FROM users WHERE id = ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, id);
+            if (ps.executeUpdate() > 0) changes.publish(conn, ChangeFeed.Kind.USER, id, 0);
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to delete user " + id, e);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Caută un utilizator (Person sau Duck) în cache, apoi într-un singur round-trip.
+     * Instanța întoarsă poate fi cea din cache, partajată: nu se modifică.
+     */
+    @Override
+    public User findById(Long id) {
+        User cached = cache.get(id);
+        if (cached != null) return cached;
+
+        String sql = SELECT_USERS + " WHERE u.id = ?";
+        long stamp = cache.stamp();
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                User u = rs.next() ? mapUser(rs) : null;
+                cache.put(u, stamp);
+                return u;
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find user " + id + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Încarcă toți utilizatorii cu id-urile date într-o singură interogare ({@code = ANY(?)}).
+     * Utilizatorii deja în cache nu mai sunt ceruți bazei de date.
+     * Id-urile duplicate sau inexistente sunt ignorate; rezultatul este ordonat după id.
+     * Utilizatorii întorși pot fi instanțele din cache, partajate: nu se modifică.
+     */
+    @Override
+    public List<User> findByIds(Collection<Long> ids) {
+        List<User> users = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) return users;
+
+        Set<Long> missing = new HashSet<>();
+        for (Long id : new HashSet<>(ids)) {
+            User cached = cache.get(id);
+            if (cached != null) users.add(cached);
+            else missing.add(id);
+        }
+        if (missing.isEmpty()) {
+            users.sort(Comparator.comparing(User::getId));
+            return users;
+        }
+
+        String sql = SELECT_USERS + " WHERE u.id = ANY(?) ORDER BY u.id";
+        long stamp = cache.stamp();
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            Array idArray = conn.createArrayOf("bigint", missing.toArray());
+            try {
+                ps.setArray(1, idArray);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        User u = mapUser(rs);
+                        if (u != null) {
+                            users.add(u);
+                            cache.put(u, stamp);
+                        }
+                    }
+                }
+            } finally {
+                idArray.free();
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load users by ids: " + e.getMessage(), e);
+        }
+
+        users.sort(Comparator.comparing(User::getId));
+        return users;
+    }
+
+    /**
+     * Toți utilizatorii, ordonați după id, dintr-o singură interogare polimorfică
+     * (LEFT JOIN pe person_details / duck_details), citită cu cursor pe server.
+     */
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        String sql = SELECT_USERS + " ORDER BY u.id";
+
+        try (Connection conn = Database.getInstance().getConnection()) {
+            conn.setAutoCommit(false); // pgjdbc foloseste cursorul doar in afara autocommit
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setFetchSize(STREAM_FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        User u = mapUser(rs);
+                        if (u != null) users.add(u);
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load all users: " + e.getMessage(), e);
+        }
+
+        return users;
+    }
+
+    /**
+     * O pagină de utilizatori (keyset): id > afterId, ordonați după id, cel mult limit.
+     * Rândurile fără detalii sunt sărite, iar pagina se completează din rândurile următoare, ca o pagină
+     * mai scurtă decât limit să însemne în continuare că nu mai sunt utilizatori (vezi {@link KeysetPager}).
+     */
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        List<User> users = new ArrayList<>(limit);
+        String sql = SELECT_USERS + " WHERE u.id > ? ORDER BY u.id LIMIT ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            long after = afterId;
+            while (users.size() < limit) {
+                int wanted = limit - users.size();
+                int scanned = 0;
+                ps.setLong(1, after);
+                ps.setInt(2, wanted);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        scanned++;
+                        after = rs.getLong("id");
+                        User u = mapUser(rs);
+                        if (u != null) users.add(u);
+                    }
+                }
+                if (scanned < wanted) break; // tabela s-a terminat
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load users after id " + afterId + ": " + e.getMessage(), e);
+        }
+
+        return users;
+    }
+
+    /**
+     * Construiește Person sau Duck din rândul curent al unei interogări bazate pe {@link #SELECT_USERS}.
+     * Returnează null dacă lipsesc detaliile pentru tipul declarat.
+     */
+    static User mapUser(ResultSet rs) throws SQLException {
+        long id = rs.getLong("id");
+        String username = rs.getString("username");
+        String email = rs.getString("email");
+        String password = rs.getString("password");
+
+        if ("PERSON".equals(rs.getString("type"))) {
+            if (rs.getObject("p_user_id") == null) return null;
+            return new Person(
+                    id, username, email, password,
+                    rs.getString("first_name"),
+                    rs.getString("last_name"),
+                    rs.getObject("birth_date", LocalDate.class),
+                    rs.getString("occupation"),
+                    rs.getObject("empathy", Integer.class)
+            );
+        }
+
+        String duckType = rs.getString("duck_type");
+        if (duckType == null) return null;
+        return JdbcDuckRepository.createDuckInstance(id, username, email, password,
+                rs.getDouble("speed"), rs.getDouble("endurance"), duckType);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        if (cache.contains(id)) return true;
+
+        String sql = "SELECT 1 FROM users WHERE id = ?";
+
+        try (Connection conn = Database.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to check user existence for id " + id, e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package ducknetwork.repository;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy iteration over a table using keyset pagination ({@code WHERE id > ? ORDER BY id LIMIT ?}).
+ * Only one page is held in memory, and each page borrows a pooled connection just for its own query.
+ */
+public final class KeysetPager {
+    private KeysetPager() {}
+
+    /**
+     * Fetches one page: rows with key strictly greater than afterKey, ordered by key, at most limit rows.
+     * A page shorter than limit ends the iteration, so a fetcher that skips rows must fill the page from the
+     * following ones and return fewer than limit only when the table has no more rows.
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        List<T> fetch(long afterKey, int limit);
+    }
+
+    public static <T> Iterator<T> iterator(int pageSize, PageFetcher<T> fetcher, ToLongFunction<T> keyOf) {
+        if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
+
+        return new Iterator<>() {
+            private List<T> page = List.of();
+            private int pos;
+            private long lastKey = Long.MIN_VALUE;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (pos < page.size()) return true;
+                if (exhausted) return false;
+                page = fetcher.fetch(lastKey, pageSize);
+                pos = 0;
+                if (page.size() < pageSize) exhausted = true;
+                if (!page.isEmpty()) lastKey = keyOf.applyAsLong(page.get(page.size() - 1));
+                return !page.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return page.get(pos++);
+            }
+        };
+    }
+
+    public static <T> Stream<T> stream(int pageSize, PageFetcher<T> fetcher, ToLongFunction<T> keyOf) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                iterator(pageSize, fetcher, keyOf), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
@@ -2,11 +2,11 @@ package ducknetwork.repository;
 
 import ducknetwork.persistence.Database;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 
 public class RaceBuoyRepository {
@@ -26,26 +26,39 @@ public class RaceBuoyRepository {
         }
     }
 
-    public List<Double> findBuoys(Connection conn, long eventId) throws SQLException {
-        List<Double> buoys = new ArrayList<>();
-        String sql = "SELECT distance FROM race_buoys WHERE race_event_id = ? ORDER BY position";
+    public double[] findBuoys(Connection conn, long eventId) throws SQLException {
+        String sql = "SELECT array_agg(distance::float8 ORDER BY position) AS buoys FROM race_buoys WHERE race_event_id = ?";
 
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, eventId);
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    buoys.add(rs.getDouble("distance"));
-                }
+                return rs.next() ? toDoubles(rs.getArray("buoys")) : new double[0];
             }
         }
-        return buoys;
     }
 
-    public List<Double> findBuoys(long eventId) {
+    public double[] findBuoys(long eventId) {
         try (Connection conn = Database.getInstance().getConnection()) {
             return findBuoys(conn, eventId);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to find buoys for event " + eventId + ": " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Converteste un array SQL float8[] (posibil null) in double[].
+     */
+    static double[] toDoubles(Array array) throws SQLException {
+        if (array == null) return new double[0];
+        try {
+            Object[] values = (Object[]) array.getArray();
+            double[] result = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                result[i] = ((Number) values[i]).doubleValue();
+            }
+            return result;
+        } finally {
+            array.free();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ducknetwork.repository;
+
+import ducknetwork.domain.Duck;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rezultatele curselor și clasamentele derivate din ele.
+ */
+public interface RaceResultRepository {
+
+    /**
+     * O poziție în clasament: cel mai bun timp al raței și numărul de rezultate luate în calcul.
+     */
+    record LeaderboardEntry(int rank, long duckId, String username, double bestTime, long races) {}
+
+    /** Salvează timpii unei curse (în ordinea culoarelor). */
+    void saveResults(Long raceEventId, Map<Duck, Double> times);
+
+    /** Cel mai bun timp al unei rațe și locul ei în clasamentul general. */
+    Optional<LeaderboardEntry> findBestTime(Long duckId);
+
+    /** Primele n rațe ale unui eveniment, după cel mai bun timp obținut în acel eveniment. */
+    List<LeaderboardEntry> findTopForEvent(Long raceEventId, int n);
+
+    /** Clasamentul general: primele n rațe după cel mai bun timp din toate cursele. */
+    List<LeaderboardEntry> findAllTimeRanking(int n);
+}
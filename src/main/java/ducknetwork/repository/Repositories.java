@@ -0,0 +1,112 @@
+package ducknetwork.repository;
+
+import ducknetwork.metrics.Metrics;
+import ducknetwork.repository.memory.InMemoryCardMemberRepository;
+import ducknetwork.repository.memory.InMemoryCardRepository;
+import ducknetwork.repository.memory.InMemoryDuckRepository;
+import ducknetwork.repository.memory.InMemoryEventRepository;
+import ducknetwork.repository.memory.InMemoryEventSubscriberRepository;
+import ducknetwork.repository.memory.InMemoryFriendRepository;
+import ducknetwork.repository.memory.InMemoryRaceResultRepository;
+import ducknetwork.repository.memory.InMemoryUserRepository;
+import ducknetwork.repository.memory.MemoryStore;
+import ducknetwork.util.AppConfig;
+
+/**
+ * Setul de repository-uri folosit de service, pentru un anumit mod de stocare.
+ * Modul se alege la pornire prin cheia {@code storage}: {@code postgres} (implicit) sau {@code memory}
+ * (embedded, fără bază de date; datele se pierd la oprire, cu excepția cazului în care {@code memory.dataDir}
+ * indică un director pentru jurnal și snapshot-uri, vezi {@link MemoryStore}).
+ * Importul în masă folosește COPY și există doar pentru PostgreSQL ({@code bulkImport} este null în memorie),
+ * la fel ca și calculul componentelor conexe în baza de date ({@code communities}).
+ * Fiecare repository este învelit într-un proxy care măsoară apelurile (vezi {@link Metrics}).
+ */
+public record Repositories(Storage storage,
+                           UserRepository users,
+                           FriendRepository friends,
+                           CardRepository cards,
+                           CardMemberRepository cardMembers,
+                           EventRepository events,
+                           EventSubscriberRepository eventSubscribers,
+                           DuckRepository ducks,
+                           RaceResultRepository raceResults,
+                           BulkImportRepository bulkImport,
+                           CommunityRepository communities,
+                           MemoryStore memoryStore) {
+
+    public enum Storage {
+        POSTGRES, MEMORY;
+
+        /** Modul configurat prin {@code storage} (config.properties sau -Dstorage=...). */
+        public static Storage configured() {
+            String value = AppConfig.get("storage", "postgres");
+            return switch (value.toLowerCase()) {
+                case "postgres", "postgresql", "jdbc" -> POSTGRES;
+                case "memory", "in-memory", "embedded" -> MEMORY;
+                default -> throw new IllegalArgumentException("Unknown storage: " + value);
+            };
+        }
+    }
+
+    public static Repositories fromConfig() {
+        return Storage.configured() == Storage.MEMORY ? inMemory(MemoryStore.fromConfig()) : postgres();
+    }
+
+    public static Repositories postgres() {
+        return instrumented(Storage.POSTGRES,
+                new JdbcUserRepository(),
+                new JdbcFriendRepository(),
+                new JdbcCardRepository(),
+                new JdbcCardMemberRepository(),
+                new JdbcEventRepository(),
+                new JdbcEventSubscriberRepository(),
+                new JdbcDuckRepository(),
+                new JdbcRaceResultRepository(),
+                new JdbcBulkImportRepository(),
+                new JdbcCommunityRepository(),
+                null);
+    }
+
+    public static Repositories inMemory(MemoryStore store) {
+        return instrumented(Storage.MEMORY,
+                new InMemoryUserRepository(store),
+                new InMemoryFriendRepository(store),
+                new InMemoryCardRepository(store),
+                new InMemoryCardMemberRepository(store),
+                new InMemoryEventRepository(store),
+                new InMemoryEventSubscriberRepository(store),
+                new InMemoryDuckRepository(store),
+                new InMemoryRaceResultRepository(store),
+                null,
+                null,
+                store);
+    }
+
+    private static Repositories instrumented(Storage storage, UserRepository users, FriendRepository friends,
+                                             CardRepository cards, CardMemberRepository cardMembers,
+                                             EventRepository events, EventSubscriberRepository eventSubscribers,
+                                             DuckRepository ducks, RaceResultRepository raceResults,
+                                             BulkImportRepository bulkImport, CommunityRepository communities,
+                                             MemoryStore memoryStore) {
+        Metrics m = Metrics.getInstance();
+        return new Repositories(storage,
+                m.instrument(UserRepository.class, users),
+                m.instrument(FriendRepository.class, friends),
+                m.instrument(CardRepository.class, cards),
+                m.instrument(CardMemberRepository.class, cardMembers),
+                m.instrument(EventRepository.class, events),
+                m.instrument(EventSubscriberRepository.class, eventSubscribers),
+                m.instrument(DuckRepository.class, ducks),
+                m.instrument(RaceResultRepository.class, raceResults),
+                m.instrument(BulkImportRepository.class, bulkImport),
+                m.instrument(CommunityRepository.class, communities),
+                memoryStore);
+    }
+
+    /**
+     * Închide stocarea embedded (snapshot final și jurnal); nimic de făcut pentru PostgreSQL.
+     */
+    public void close() {
+        if (memoryStore != null) memoryStore.close();
+    }
+}
@@ -0,0 +1,153 @@
+package ducknetwork.repository;
+
+import ducknetwork.domain.User;
+import ducknetwork.util.AppConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Singleton read-through cache for users (Person and Duck), keyed by id, shared by
+ * {@link JdbcUserRepository} and {@link JdbcDuckRepository}. Bounded by {@code cache.users.maxSize}
+ * with LRU eviction; entries are invalidated on save / delete.
+ * <p>
+ * A reader takes a {@link #stamp()} before its query and hands it to {@link #put(User, long)}; the row is
+ * cached only if the id was not invalidated in between, so a row read before a concurrent save (or a
+ * remote invalidation from {@link ChangeFeed}) does not come back into the cache. The last
+ * {@value #MAX_TOMBSTONES} invalidations are remembered per id; older ones only as a floor below which
+ * every stamp is stale.
+ * <p>
+ * Cached users are shared between callers and must be treated as read-only: changes go through the
+ * repository's save, which invalidates the entry.
+ */
+public class UserCache {
+
+    private static final int MAX_TOMBSTONES = 4_096;
+
+    private static UserCache INSTANCE;
+
+    private final int maxSize;
+    private final LinkedHashMap<Long, User> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // guarded by entries: invalidation counter, id -> counter value of its last invalidation, stale floor
+    private long epoch;
+    private long floor;
+    private final LinkedHashMap<Long, Long> tombstones = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            if (size() > MAX_TOMBSTONES) {
+                floor = Math.max(floor, eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int maxSize) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%",
+                    size, maxSize, hits, misses, evictions, hitRate() * 100);
+        }
+    }
+
+    private UserCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, User> eldest) {
+                if (size() > UserCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static synchronized UserCache getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new UserCache(AppConfig.getInt("cache.users.maxSize", 10_000));
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Cached user, or null on a miss. Counts a hit or a miss.
+     */
+    public User get(Long id) {
+        User u;
+        synchronized (entries) {
+            u = entries.get(id);
+        }
+        if (u != null) hits.increment();
+        else misses.increment();
+        return u;
+    }
+
+    /** Whether the id is cached, without touching the LRU order or the counters. */
+    public boolean contains(Long id) {
+        synchronized (entries) {
+            return entries.containsKey(id);
+        }
+    }
+
+    /**
+     * Invalidation stamp to take before reading a user from the database; see {@link #put(User, long)}.
+     */
+    public long stamp() {
+        synchronized (entries) {
+            return epoch;
+        }
+    }
+
+    /**
+     * Caches a user read after {@code stamp} was taken, unless its id was invalidated since then.
+     */
+    public void put(User u, long stamp) {
+        if (maxSize <= 0 || u == null || u.getId() == null) return;
+        synchronized (entries) {
+            if (stamp < floor) return;
+            Long invalidated = tombstones.get(u.getId());
+            if (invalidated != null && invalidated > stamp) return;
+            entries.put(u.getId(), u);
+        }
+    }
+
+    public void invalidate(Long id) {
+        synchronized (entries) {
+            entries.remove(id);
+            epoch++;
+            tombstones.remove(id); // re-inserted at the young end
+            tombstones.put(id, epoch);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            tombstones.clear();
+            floor = ++epoch;
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, maxSize);
+    }
+}
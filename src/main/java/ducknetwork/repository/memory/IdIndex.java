@@ -0,0 +1,44 @@
+package ducknetwork.repository.memory;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Ids of one table in ascending order, for ordered scans and keyset pages.
+ * Ids are generated in increasing order, so inserts are appends; deleted ids stay in the array
+ * (callers skip them) until more than half are dead, then the array is compacted.
+ */
+final class IdIndex {
+
+    private long[] ids = new long[16];
+    private int size;
+    private int dead;
+
+    void append(long id) {
+        if (size > 0 && id <= ids[size - 1])
+            throw new IllegalStateException("ids must be appended in increasing order");
+        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        ids[size++] = id;
+    }
+
+    /** Records a deletion; live tells which ids still exist. */
+    void removed(LongPredicate live) {
+        if (++dead * 2 <= size) return;
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (live.test(ids[i])) ids[n++] = ids[i];
+        }
+        size = n;
+        dead = 0;
+    }
+
+    /** Position of the first id greater than afterId. */
+    int after(long afterId) {
+        int i = Arrays.binarySearch(ids, 0, size, afterId);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    int size() { return size; }
+
+    long at(int position) { return ids[position]; }
+}
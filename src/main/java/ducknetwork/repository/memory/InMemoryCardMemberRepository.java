@@ -0,0 +1,55 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.Duck;
+import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.repository.CardMemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InMemoryCardMemberRepository implements CardMemberRepository {
+
+    private final MemoryStore store;
+
+    public InMemoryCardMemberRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void addDuckToCard(Long duckId, Long cardId) {
+        store.write(() -> {
+            ensureDuckExists(duckId);
+            if (cardId == null || !store.cards.containsKey(cardId)) {
+                throw new RuntimeException("Card not found");
+            }
+            store.addCardMember(cardId, duckId);
+        });
+    }
+
+    @Override
+    public void removeDuckFromCard(Long duckId, Long cardId) {
+        store.write(() -> {
+            ensureDuckExists(duckId);
+            if (cardId == null) return;
+            store.removeCardMember(cardId, duckId);
+        });
+    }
+
+    @Override
+    public List<Long> findDucksInCard(Long cardId) {
+        return store.read(() -> {
+            LongSet members = cardId == null ? null : store.cardMembers.get(cardId);
+            List<Long> list = new ArrayList<>(members == null ? 0 : members.size());
+            if (members != null) {
+                for (long id : members.toSortedArray()) list.add(id);
+            }
+            return list;
+        });
+    }
+
+    private void ensureDuckExists(Long duckId) {
+        if (duckId == null || !(store.users.get(duckId) instanceof Duck)) {
+            throw new DomainExceptions.UserNotFoundException("Duck not found");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.Card;
+import ducknetwork.repository.CardRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class InMemoryCardRepository implements CardRepository {
+
+    private final MemoryStore store;
+
+    public InMemoryCardRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Card save(String name) {
+        return store.write(() -> {
+            long id = store.nextCardId++;
+            store.insertCard(id, name);
+            return new Card(id, name);
+        });
+    }
+
+    @Override
+    public void delete(Long cardId) {
+        if (cardId == null) return;
+        store.write(() -> store.deleteCard(cardId));
+    }
+
+    @Override
+    public Optional<Card> findById(Long cardId) {
+        if (cardId == null) return Optional.empty();
+        return store.read(() -> {
+            String name = store.cards.get(cardId);
+            return name == null ? Optional.empty() : Optional.of(new Card(cardId, name));
+        });
+    }
+
+    @Override
+    public List<Card> findAll() {
+        return findPage(Long.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Card> findPage(long afterId, int limit) {
+        return store.read(() -> {
+            List<Card> cards = new ArrayList<>(Math.min(limit, store.cards.size()));
+            IdIndex index = store.cardIds;
+            for (int i = index.after(afterId); i < index.size() && cards.size() < limit; i++) {
+                long id = index.at(i);
+                String name = store.cards.get(id);
+                if (name != null) cards.add(new Card(id, name));
+            }
+            return cards;
+        });
+    }
+}
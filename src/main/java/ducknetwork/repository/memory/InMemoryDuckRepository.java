@@ -0,0 +1,68 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.Duck;
+import ducknetwork.repository.DuckRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+public class InMemoryDuckRepository implements DuckRepository {
+
+    /** Best swimmer first: endurance DESC, speed DESC, then id. */
+    private static final Comparator<Duck> SWIMMER_ORDER = Comparator
+            .comparingDouble(Duck::getEndurance).reversed()
+            .thenComparing(Comparator.comparingDouble(Duck::getSpeed).reversed())
+            .thenComparing(Duck::getId);
+
+    private final MemoryStore store;
+
+    public InMemoryDuckRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Optional<Duck> findById(Long id) {
+        if (id == null) return Optional.empty();
+        return store.read(() -> store.users.get(id) instanceof Duck d ? Optional.of(d) : Optional.empty());
+    }
+
+    @Override
+    public List<Duck> findAll() {
+        return store.read(() -> {
+            List<Duck> ducks = new ArrayList<>();
+            IdIndex index = store.userIds;
+            for (int i = 0; i < index.size(); i++) {
+                if (store.users.get(index.at(i)) instanceof Duck d) ducks.add(d);
+            }
+            return ducks;
+        });
+    }
+
+    /**
+     * Top M swimmers in one pass over the users, keeping the M best in a bounded heap (worst on top).
+     */
+    @Override
+    public List<Duck> findTopSwimmers(int m) {
+        if (m <= 0) return new ArrayList<>();
+        PriorityQueue<Duck> heap = new PriorityQueue<>(m + 1, SWIMMER_ORDER.reversed());
+        store.read(() -> {
+            store.users.forEachValue(u -> {
+                if (u instanceof Duck d && isSwimmer(d)) {
+                    heap.offer(d);
+                    if (heap.size() > m) heap.poll();
+                }
+            });
+            return null;
+        });
+        List<Duck> top = new ArrayList<>(heap);
+        top.sort(SWIMMER_ORDER);
+        return top;
+    }
+
+    private static boolean isSwimmer(Duck d) {
+        return "SWIMMING".equals(d.getType()) || "FLYING_AND_SWIMMING".equals(d.getType());
+    }
+}
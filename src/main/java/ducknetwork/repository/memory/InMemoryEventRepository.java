@@ -0,0 +1,80 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.Event;
+import ducknetwork.domain.RaceEvent;
+import ducknetwork.repository.EventRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Events and race buoys. Every read builds a fresh Event / RaceEvent (like the JDBC repository),
+ * so callers can set participants or a notifier without affecting each other.
+ */
+public class InMemoryEventRepository implements EventRepository {
+
+    private final MemoryStore store;
+
+    public InMemoryEventRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Event save(String name) {
+        long id = insert(new MemoryStore.EventRow(name, null));
+        return new Event(id, name);
+    }
+
+    @Override
+    public RaceEvent saveRaceEvent(String name, List<Double> buoys) {
+        double[] distances = buoys == null ? new double[0]
+                : buoys.stream().mapToDouble(Double::doubleValue).toArray();
+        long id = insert(new MemoryStore.EventRow(name, distances));
+        return new RaceEvent(id, name, distances);
+    }
+
+    @Override
+    public void delete(Long eventId) {
+        if (eventId == null) return;
+        store.write(() -> store.deleteEvent(eventId));
+    }
+
+    @Override
+    public Optional<Event> findById(Long eventId) {
+        if (eventId == null) return Optional.empty();
+        return store.read(() -> Optional.ofNullable(toEvent(eventId, store.events.get(eventId))));
+    }
+
+    @Override
+    public List<Event> findAll() {
+        return findPage(Long.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Event> findPage(long afterId, int limit) {
+        return store.read(() -> {
+            List<Event> events = new ArrayList<>(Math.min(limit, store.events.size()));
+            IdIndex index = store.eventIds;
+            for (int i = index.after(afterId); i < index.size() && events.size() < limit; i++) {
+                long id = index.at(i);
+                Event e = toEvent(id, store.events.get(id));
+                if (e != null) events.add(e);
+            }
+            return events;
+        });
+    }
+
+    private long insert(MemoryStore.EventRow row) {
+        return store.write(() -> {
+            long id = store.nextEventId++;
+            store.insertEvent(id, row);
+            return id;
+        });
+    }
+
+    private static Event toEvent(long id, MemoryStore.EventRow row) {
+        if (row == null) return null;
+        return row.buoys() == null ? new Event(id, row.name()) : new RaceEvent(id, row.name(), row.buoys());
+    }
+}
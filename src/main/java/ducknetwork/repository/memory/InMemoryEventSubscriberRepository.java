@@ -0,0 +1,63 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.repository.EventSubscriberRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class InMemoryEventSubscriberRepository implements EventSubscriberRepository {
+
+    private final MemoryStore store;
+
+    public InMemoryEventSubscriberRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void subscribe(Long eventId, Long userId) {
+        store.write(() -> {
+            if (eventId == null || !store.events.containsKey(eventId)) {
+                throw new RuntimeException("Event not found");
+            }
+            if (userId == null || !store.users.containsKey(userId)) {
+                throw new DomainExceptions.UserNotFoundException("User not found");
+            }
+            store.subscribe(eventId, userId);
+        });
+    }
+
+    @Override
+    public void unsubscribe(Long eventId, Long userId) {
+        if (eventId == null || userId == null) return;
+        store.write(() -> {
+            store.unsubscribe(eventId, userId);
+        });
+    }
+
+    @Override
+    public List<Long> findSubscribers(Long eventId) {
+        long[] ids = subscribers(eventId);
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) list.add(id);
+        return list;
+    }
+
+    @Override
+    public long[] findSubscribersPage(Long eventId, long afterUserId, int limit) {
+        long[] ids = subscribers(eventId);
+        int from = Arrays.binarySearch(ids, afterUserId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        int to = (int) Math.min(ids.length, (long) from + limit);
+        return Arrays.copyOfRange(ids, from, to);
+    }
+
+    private long[] subscribers(Long eventId) {
+        if (eventId == null) return new long[0];
+        return store.read(() -> {
+            LongSet set = store.eventSubscribers.get(eventId);
+            return set == null ? new long[0] : set.toSortedArray();
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.graph.FriendGraph;
+import ducknetwork.repository.FriendRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+public class InMemoryFriendRepository implements FriendRepository {
+
+    private final MemoryStore store;
+
+    public InMemoryFriendRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void addFriend(Long id1, Long id2) {
+        if (Objects.equals(id1, id2)) throw new IllegalArgumentException("A user cannot befriend themselves");
+        store.write(() -> {
+            ensureUserExists(id1);
+            ensureUserExists(id2);
+            store.addFriendship(id1, id2);
+        });
+    }
+
+    @Override
+    public void removeFriend(Long id1, Long id2) {
+        store.write(() -> {
+            ensureUserExists(id1);
+            ensureUserExists(id2);
+            store.removeFriendship(id1, id2);
+        });
+    }
+
+    @Override
+    public void addFriends(Collection<long[]> pairs) {
+        if (pairs == null || pairs.isEmpty()) return;
+        validatePairs(pairs);
+        store.write(() -> {
+            ensureUsersExist(pairs);
+            for (long[] pair : pairs) store.addFriendship(pair[0], pair[1]);
+        });
+    }
+
+    @Override
+    public void removeFriends(Collection<long[]> pairs) {
+        if (pairs == null || pairs.isEmpty()) return;
+        validatePairs(pairs);
+        store.write(() -> {
+            ensureUsersExist(pairs);
+            for (long[] pair : pairs) store.removeFriendship(pair[0], pair[1]);
+        });
+    }
+
+    @Override
+    public List<Long> getFriendIds(Long userId) {
+        return store.read(() -> {
+            ensureUserExists(userId);
+            LongSet set = store.friends.get(userId);
+            List<Long> ids = new ArrayList<>(set == null ? 0 : set.size());
+            if (set != null) {
+                for (long id : set.toSortedArray()) ids.add(id);
+            }
+            return ids;
+        });
+    }
+
+    @Override
+    public FriendGraph loadGraph() {
+        return store.read(() -> {
+            FriendGraph.Builder builder = new FriendGraph.Builder();
+            IdIndex index = store.userIds;
+            for (int i = 0; i < index.size(); i++) {
+                long id = index.at(i);
+                if (store.users.containsKey(id)) builder.addNode(id);
+            }
+            store.friends.forEach((id, set) -> {
+                for (long other : set.toSortedArray()) {
+                    if (id < other) builder.addEdge(id, other);
+                }
+            });
+            return builder.build();
+        });
+    }
+
+    private static void validatePairs(Collection<long[]> pairs) {
+        for (long[] pair : pairs) {
+            if (pair == null || pair.length != 2)
+                throw new IllegalArgumentException("Each friendship must be a pair of ids");
+            if (pair[0] == pair[1])
+                throw new IllegalArgumentException("A user cannot befriend themselves");
+        }
+    }
+
+    private void ensureUsersExist(Collection<long[]> pairs) {
+        TreeSet<Long> missing = new TreeSet<>();
+        for (long[] pair : pairs) {
+            for (long id : pair) {
+                if (!store.users.containsKey(id)) missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new DomainExceptions.UserNotFoundException("Users not found: " + missing);
+        }
+    }
+
+    private void ensureUserExists(Long id) {
+        if (id == null || !store.users.containsKey(id)) {
+            throw new DomainExceptions.UserNotFoundException("User with id " + id + " not found");
+        }
+    }
+}
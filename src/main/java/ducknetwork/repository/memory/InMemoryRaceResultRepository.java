@@ -0,0 +1,90 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.Duck;
+import ducknetwork.domain.User;
+import ducknetwork.repository.RaceResultRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Race results kept only as aggregates (best time and count per duck, overall and per event),
+ * which is all the leaderboards read.
+ */
+public class InMemoryRaceResultRepository implements RaceResultRepository {
+
+    private final MemoryStore store;
+
+    public InMemoryRaceResultRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void saveResults(Long raceEventId, Map<Duck, Double> times) {
+        if (times == null || times.isEmpty()) return;
+        store.write(() -> {
+            if (!store.events.containsKey(raceEventId))
+                throw new RuntimeException("Failed to save results for race " + raceEventId + ": event not found");
+
+            for (Map.Entry<Duck, Double> e : times.entrySet()) {
+                long duckId = e.getKey().getId();
+                if (store.users.containsKey(duckId)) store.addRaceTime(raceEventId, duckId, e.getValue());
+            }
+        });
+    }
+
+    @Override
+    public Optional<LeaderboardEntry> findBestTime(Long duckId) {
+        return store.read(() -> {
+            MemoryStore.BestTime own = store.bestByDuck.get(duckId);
+            if (own == null) return Optional.empty();
+            int[] better = {0};
+            store.bestByDuck.forEach((id, b) -> {
+                if (b.best < own.best || (b.best == own.best && id < duckId)) better[0]++;
+            });
+            return Optional.of(entry(better[0] + 1, duckId, own));
+        });
+    }
+
+    @Override
+    public List<LeaderboardEntry> findTopForEvent(Long raceEventId, int n) {
+        return store.read(() -> {
+            LongMap<MemoryStore.BestTime> byDuck = store.bestByEvent.get(raceEventId);
+            return byDuck == null ? new ArrayList<>() : ranking(byDuck, n);
+        });
+    }
+
+    @Override
+    public List<LeaderboardEntry> findAllTimeRanking(int n) {
+        return store.read(() -> ranking(store.bestByDuck, n));
+    }
+
+    private List<LeaderboardEntry> ranking(LongMap<MemoryStore.BestTime> byDuck, int n) {
+        long[] ids = new long[byDuck.size()];
+        double[] best = new double[byDuck.size()];
+        int[] k = {0};
+        byDuck.forEach((id, b) -> {
+            ids[k[0]] = id;
+            best[k[0]++] = b.best;
+        });
+
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> best[a] != best[b] ? Double.compare(best[a], best[b]) : Long.compare(ids[a], ids[b]));
+
+        List<LeaderboardEntry> list = new ArrayList<>(Math.min(n, order.length));
+        for (int i = 0; i < order.length && list.size() < n; i++) {
+            long id = ids[order[i]];
+            list.add(entry(list.size() + 1, id, byDuck.get(id)));
+        }
+        return list;
+    }
+
+    private LeaderboardEntry entry(int rank, long duckId, MemoryStore.BestTime b) {
+        User u = store.users.get(duckId);
+        return new LeaderboardEntry(rank, duckId, u == null ? null : u.getUsername(), b.best, b.races);
+    }
+}
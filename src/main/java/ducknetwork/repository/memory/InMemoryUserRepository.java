@@ -0,0 +1,93 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.Duck;
+import ducknetwork.domain.Person;
+import ducknetwork.domain.User;
+import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.repository.UserRepository;
+import ducknetwork.util.Validators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class InMemoryUserRepository implements UserRepository {
+
+    private final MemoryStore store;
+
+    public InMemoryUserRepository(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public User save(User user) {
+        if (user == null)
+            throw new IllegalArgumentException("User cannot be null");
+        if (!(user instanceof Person) && !(user instanceof Duck))
+            throw new IllegalArgumentException("Unsupported User subtype: " + user.getClass());
+
+        Validators.validate(Validators.USERNAME_VALIDATOR, user.getUsername());
+        Validators.validate(Validators.EMAIL_VALIDATOR, user.getEmail());
+
+        return store.write(() -> {
+            if (store.usernames.containsKey(user.getUsername()) || store.emails.containsKey(user.getEmail()))
+                throw new RuntimeException("Duplicate username or email: " + user.getUsername() + " / " + user.getEmail());
+
+            user.setId(store.nextUserId++);
+            store.insertUser(user);
+            return user;
+        });
+    }
+
+    @Override
+    public void delete(long id) {
+        store.write(() -> {
+            if (!store.users.containsKey(id))
+                throw new DomainExceptions.UserNotFoundException("User with id " + id + " not found");
+            store.deleteUser(id);
+        });
+    }
+
+    @Override
+    public User findById(Long id) {
+        if (id == null) return null;
+        return store.read(() -> store.users.get(id));
+    }
+
+    @Override
+    public List<User> findByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return new ArrayList<>();
+        long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return store.read(() -> {
+            List<User> users = new ArrayList<>(sorted.length);
+            for (long id : sorted) {
+                User u = store.users.get(id);
+                if (u != null) users.add(u);
+            }
+            return users;
+        });
+    }
+
+    @Override
+    public List<User> findAll() {
+        return findPage(Long.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        return store.read(() -> {
+            List<User> users = new ArrayList<>(Math.min(limit, store.users.size()));
+            IdIndex index = store.userIds;
+            for (int i = index.after(afterId); i < index.size() && users.size() < limit; i++) {
+                User u = store.users.get(index.at(i));
+                if (u != null) users.add(u);
+            }
+            return users;
+        });
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return id != null && store.read(() -> store.users.containsKey(id));
+    }
+}
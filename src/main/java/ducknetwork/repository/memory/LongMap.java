@@ -0,0 +1,140 @@
+package ducknetwork.repository.memory;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map from primitive long keys to non-null values (linear probing,
+ * backward-shift deletion, no boxing of keys). Not thread-safe; guarded by {@link MemoryStore}'s lock.
+ */
+final class LongMap<V> {
+
+    private long[] keys;
+    private Object[] values; // null = free slot
+    private int size;
+    private int mask;
+
+    LongMap() {
+        this(16);
+    }
+
+    LongMap(int expected) {
+        int cap = capacityFor(expected);
+        keys = new long[cap];
+        values = new Object[cap];
+        mask = cap - 1;
+    }
+
+    private static int capacityFor(int expected) {
+        return Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+    }
+
+    /** Grows once up front so that expected entries fit without rehashing along the way. */
+    void ensureCapacity(int expected) {
+        int cap = capacityFor(expected);
+        if (cap > keys.length) rehash(cap);
+    }
+
+    int size() { return size; }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            Object v = values[i];
+            if (v == null) return null;
+            if (keys[i] == key) return (V) v;
+        }
+    }
+
+    boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /** Returns the previous value, or null. */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("null values are not supported");
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) grow();
+        return null;
+    }
+
+    /** Returns the removed value, or null. */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) break;
+        }
+        if (values[i] == null) return null;
+        V old = (V) values[i];
+
+        // backward shift: move later entries of the probe chain into the hole
+        int hole = i;
+        for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        values[hole] = null;
+        size--;
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<V> action) {
+        for (Object v : values) {
+            if (v != null) action.accept((V) v);
+        }
+    }
+
+    interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(EntryConsumer<V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        rehash(keys.length * 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) put(oldKeys[i], (V) oldValues[i]);
+        }
+    }
+}
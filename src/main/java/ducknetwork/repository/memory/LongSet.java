@@ -0,0 +1,104 @@
+package ducknetwork.repository.memory;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing hash set of primitive longs (linear probing, backward-shift deletion).
+ * Not thread-safe; guarded by {@link MemoryStore}'s lock.
+ */
+final class LongSet {
+
+    private long[] keys;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    LongSet() {
+        this(4);
+    }
+
+    LongSet(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new long[cap];
+        used = new boolean[cap];
+        mask = cap - 1;
+    }
+
+    int size() { return size; }
+
+    boolean isEmpty() { return size == 0; }
+
+    boolean contains(long key) {
+        for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) return true;
+        }
+        return false;
+    }
+
+    /** False if the key was already present. */
+    boolean add(long key) {
+        int i = slot(key);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) return false;
+        }
+        keys[i] = key;
+        used[i] = true;
+        if (++size * 2 > keys.length) grow();
+        return true;
+    }
+
+    /** False if the key was not present. */
+    boolean remove(long key) {
+        int i = slot(key);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) break;
+        }
+        if (!used[i]) return false;
+
+        int hole = i;
+        for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                hole = j;
+            }
+        }
+        used[hole] = false;
+        size--;
+        return true;
+    }
+
+    void forEach(LongConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) action.accept(keys[i]);
+        }
+    }
+
+    long[] toSortedArray() {
+        long[] out = new long[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) out[n++] = keys[i];
+        }
+        Arrays.sort(out);
+        return out;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) add(oldKeys[i]);
+        }
+    }
+}
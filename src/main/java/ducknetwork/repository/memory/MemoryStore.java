@@ -0,0 +1,413 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.User;
+import ducknetwork.util.AppConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * State of the embedded (in-memory) storage, shared by all InMemory*Repository instances.
+ * Tables are primitive-keyed maps; relations are stored as {@link LongSet}s in both directions, so
+ * lookups and cascading deletes never scan a whole table. One read-write lock guards everything:
+ * reads run in parallel, writes are serialized (the equivalent of a single-writer database).
+ * <p>
+ * Every change goes through one of the mutation methods below. A store opened on a directory
+ * ({@link #open}, or {@code memory.dataDir}) also appends each change to a {@link StoreJournal}
+ * and periodically folds the journal into a {@link StoreSnapshot}; on startup it loads the newest snapshot
+ * and replays the journal through the same mutation methods.
+ */
+public final class MemoryStore implements AutoCloseable {
+
+    private static final String JOURNAL_FILE = "journal.wal";
+
+    /** Event row: the name, and the buoy distances for races (null for plain events). */
+    record EventRow(String name, double[] buoys) {}
+
+    /** Best time of a duck (overall or in one event) and the number of results counted. */
+    static final class BestTime {
+        double best = Double.POSITIVE_INFINITY;
+        long races;
+
+        void add(double time) {
+            if (time < best) best = time;
+            races++;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // durability: null / absent for a purely in-memory store
+    private final Path dir;
+    private StoreJournal journal;
+    private ScheduledExecutorService checkpointer;
+    private final Object checkpointLock = new Object();
+    private boolean closed; // guarded by checkpointLock
+    private volatile long lastCheckpointNanos = System.nanoTime();
+
+    // users
+    final LongMap<User> users = new LongMap<>();
+    final IdIndex userIds = new IdIndex();
+    final Map<String, Long> usernames = new HashMap<>();
+    final Map<String, Long> emails = new HashMap<>();
+    long nextUserId = 1;
+
+    // friends: user -> friends (both directions)
+    final LongMap<LongSet> friends = new LongMap<>();
+
+    // cards and memberships (card -> ducks, duck -> cards)
+    final LongMap<String> cards = new LongMap<>();
+    final IdIndex cardIds = new IdIndex();
+    final LongMap<LongSet> cardMembers = new LongMap<>();
+    final LongMap<LongSet> duckCards = new LongMap<>();
+    long nextCardId = 1;
+
+    // events, buoys and subscribers (event -> users, user -> events)
+    final LongMap<EventRow> events = new LongMap<>();
+    final IdIndex eventIds = new IdIndex();
+    final LongMap<LongSet> eventSubscribers = new LongMap<>();
+    final LongMap<LongSet> userEvents = new LongMap<>();
+    long nextEventId = 1;
+
+    // race results, aggregated: duck -> best time, event -> (duck -> best time)
+    final LongMap<BestTime> bestByDuck = new LongMap<>();
+    final LongMap<LongMap<BestTime>> bestByEvent = new LongMap<>();
+
+    /**
+     * Volatile store: everything is lost when the process exits.
+     */
+    public MemoryStore() {
+        this.dir = null;
+    }
+
+    private MemoryStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Volatile store, or a durable one when {@code memory.dataDir} is set.
+     */
+    public static MemoryStore fromConfig() {
+        String dir = AppConfig.get("memory.dataDir", "");
+        return dir.isBlank() ? new MemoryStore() : open(Path.of(dir));
+    }
+
+    /**
+     * Durable store in dir: loads the newest snapshot, replays the journal and starts the periodic checkpoints
+     * ({@code memory.checkpointIntervalSeconds}, or earlier once the journal reaches
+     * {@code memory.checkpointJournalBytes}). With {@code memory.fsync=false} commits are written to the OS
+     * but not forced to disk.
+     */
+    public static MemoryStore open(Path dir) {
+        MemoryStore store = new MemoryStore(dir);
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(dir);
+            long generation = StoreSnapshot.loadLatest(dir, store);
+            boolean fsync = Boolean.parseBoolean(AppConfig.get("memory.fsync", "true"));
+            store.journal = StoreJournal.open(dir.resolve(JOURNAL_FILE), generation, fsync, store);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open embedded store " + dir + ": " + e.getMessage(), e);
+        }
+        System.out.printf("Stocare embedded %s: %d utilizatori, %d carduri, %d evenimente încărcate în %d ms%n",
+                dir, store.users.size(), store.cards.size(), store.events.size(), (System.nanoTime() - start) / 1_000_000);
+        store.startCheckpoints();
+        return store;
+    }
+
+    public boolean isDurable() {
+        return journal != null;
+    }
+
+    /**
+     * Writes a snapshot of the current state and empties the journal. Writers wait until it is done;
+     * readers are not blocked.
+     */
+    public void checkpoint() {
+        if (journal == null) return;
+        synchronized (checkpointLock) {
+            if (closed) return;
+            lock.readLock().lock();
+            try {
+                journal.syncAll();
+                long generation = journal.generation() + 1;
+                StoreSnapshot.write(dir, this, generation);
+                journal.restart(generation);
+                StoreSnapshot.deleteOlder(dir, generation);
+                lastCheckpointNanos = System.nanoTime();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write snapshot: " + e.getMessage(), e);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Stops the periodic checkpoints, writes a final snapshot (so the next start has no journal to replay)
+     * and closes the journal.
+     */
+    @Override
+    public void close() {
+        if (journal == null) return;
+        checkpointer.shutdown();
+        try {
+            checkpointer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (checkpointLock) {
+            if (closed) return;
+            try {
+                checkpoint();
+            } finally {
+                closed = true;
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("Nu s-a putut închide jurnalul: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void startCheckpoints() {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(AppConfig.getLong("memory.checkpointIntervalSeconds", 300));
+        long maxJournal = AppConfig.getLong("memory.checkpointJournalBytes", 64L * 1024 * 1024);
+
+        checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "memory-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        checkpointer.scheduleWithFixedDelay(() -> {
+            boolean due = journal.hasRecords() && System.nanoTime() - lastCheckpointNanos >= intervalNanos;
+            if (!due && journal.size() < maxJournal) return;
+            try {
+                checkpoint();
+            } catch (RuntimeException e) {
+                System.err.println("Checkpoint eșuat: " + e.getMessage());
+            }
+        }, 5, 5, TimeUnit.SECONDS);
+    }
+
+    <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs action under the write lock; for a durable store, returns once its journal records are on disk
+     * (the wait happens after the lock is released, so concurrent writers share one fsync).
+     */
+    <T> T write(Supplier<T> action) {
+        StoreJournal j = journal;
+        long lsn = 0;
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            if (j != null) lsn = j.appended();
+            lock.writeLock().unlock();
+            if (j != null) j.sync(lsn);
+        }
+    }
+
+    void write(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** Adds b to a's set in the relation (creating the set if needed). */
+    static boolean link(LongMap<LongSet> relation, long a, long b) {
+        LongSet set = relation.get(a);
+        if (set == null) {
+            set = new LongSet();
+            relation.put(a, set);
+        }
+        return set.add(b);
+    }
+
+    /** Removes b from a's set in the relation (dropping the set when it becomes empty). */
+    private static boolean unlink(LongMap<LongSet> relation, long a, long b) {
+        LongSet set = relation.get(a);
+        if (set == null || !set.remove(b)) return false;
+        if (set.isEmpty()) relation.remove(a);
+        return true;
+    }
+
+    /** Removes every a-b pair of a two-way relation, starting from a. */
+    private static void unlinkAll(LongMap<LongSet> forward, LongMap<LongSet> backward, long a) {
+        LongSet set = forward.remove(a);
+        if (set == null) return;
+        for (long b : set.toSortedArray()) unlink(backward, b, a);
+    }
+
+    // mutations, called under the write lock (or while loading); each one is journaled if it changed anything
+
+    void insertUser(User u) {
+        long id = u.getId();
+        users.put(id, u);
+        userIds.append(id);
+        usernames.put(u.getUsername(), id);
+        emails.put(u.getEmail(), id);
+        if (id >= nextUserId) nextUserId = id + 1;
+        log(StoreJournal.PUT_USER, w -> w.putUser(u));
+    }
+
+    void deleteUser(long id) {
+        User u = users.remove(id);
+        if (u == null) return;
+        userIds.removed(users::containsKey);
+        usernames.remove(u.getUsername());
+        emails.remove(u.getEmail());
+
+        unlinkAll(friends, friends, id);
+        unlinkAll(duckCards, cardMembers, id);
+        unlinkAll(userEvents, eventSubscribers, id);
+        bestByDuck.remove(id);
+        bestByEvent.forEachValue(byDuck -> byDuck.remove(id));
+        log(StoreJournal.DELETE_USER, w -> w.putLong(id));
+    }
+
+    void addFriendship(long a, long b) {
+        boolean changed = link(friends, a, b) | link(friends, b, a);
+        if (changed) log(StoreJournal.ADD_FRIEND, w -> pair(w, a, b));
+    }
+
+    void removeFriendship(long a, long b) {
+        boolean changed = unlink(friends, a, b) | unlink(friends, b, a);
+        if (changed) log(StoreJournal.REMOVE_FRIEND, w -> pair(w, a, b));
+    }
+
+    void insertCard(long id, String name) {
+        cards.put(id, name == null ? "" : name);
+        cardIds.append(id);
+        if (id >= nextCardId) nextCardId = id + 1;
+        log(StoreJournal.PUT_CARD, w -> {
+            w.putLong(id);
+            w.putString(name);
+        });
+    }
+
+    void deleteCard(long id) {
+        if (cards.remove(id) == null) return;
+        cardIds.removed(cards::containsKey);
+        unlinkAll(cardMembers, duckCards, id);
+        log(StoreJournal.DELETE_CARD, w -> w.putLong(id));
+    }
+
+    void addCardMember(long cardId, long duckId) {
+        boolean changed = link(cardMembers, cardId, duckId) | link(duckCards, duckId, cardId);
+        if (changed) log(StoreJournal.ADD_CARD_MEMBER, w -> pair(w, cardId, duckId));
+    }
+
+    void removeCardMember(long cardId, long duckId) {
+        boolean changed = unlink(cardMembers, cardId, duckId) | unlink(duckCards, duckId, cardId);
+        if (changed) log(StoreJournal.REMOVE_CARD_MEMBER, w -> pair(w, cardId, duckId));
+    }
+
+    void insertEvent(long id, EventRow row) {
+        events.put(id, row);
+        eventIds.append(id);
+        if (id >= nextEventId) nextEventId = id + 1;
+        log(StoreJournal.PUT_EVENT, w -> {
+            w.putLong(id);
+            w.putString(row.name());
+            w.putDoubles(row.buoys());
+        });
+    }
+
+    void deleteEvent(long id) {
+        if (events.remove(id) == null) return;
+        eventIds.removed(events::containsKey);
+        unlinkAll(eventSubscribers, userEvents, id);
+        LongMap<BestTime> removed = bestByEvent.remove(id);
+        if (removed != null) rebuildBestByDuck(removed);
+        log(StoreJournal.DELETE_EVENT, w -> w.putLong(id));
+    }
+
+    /**
+     * Recomputes the overall best of the ducks that raced in a deleted event from the events that remain;
+     * a duck with no result left is dropped from the leaderboard.
+     */
+    private void rebuildBestByDuck(LongMap<BestTime> removed) {
+        LongMap<BestTime> rebuilt = new LongMap<>(removed.size());
+        removed.forEach((duckId, b) -> rebuilt.put(duckId, new BestTime()));
+        bestByEvent.forEachValue(byDuck -> {
+            // walk the smaller of the two maps
+            if (byDuck.size() < rebuilt.size()) {
+                byDuck.forEach((duckId, b) -> merge(rebuilt.get(duckId), b));
+            } else {
+                rebuilt.forEach((duckId, total) -> merge(total, byDuck.get(duckId)));
+            }
+        });
+        rebuilt.forEach((duckId, total) -> {
+            if (total.races == 0) bestByDuck.remove(duckId);
+            else bestByDuck.put(duckId, total);
+        });
+    }
+
+    private static void merge(BestTime total, BestTime b) {
+        if (total == null || b == null) return;
+        if (b.best < total.best) total.best = b.best;
+        total.races += b.races;
+    }
+
+    void subscribe(long eventId, long userId) {
+        boolean changed = link(eventSubscribers, eventId, userId) | link(userEvents, userId, eventId);
+        if (changed) log(StoreJournal.SUBSCRIBE, w -> pair(w, eventId, userId));
+    }
+
+    void unsubscribe(long eventId, long userId) {
+        boolean changed = unlink(eventSubscribers, eventId, userId) | unlink(userEvents, userId, eventId);
+        if (changed) log(StoreJournal.UNSUBSCRIBE, w -> pair(w, eventId, userId));
+    }
+
+    void addRaceTime(long eventId, long duckId, double time) {
+        LongMap<BestTime> byDuck = bestByEvent.get(eventId);
+        if (byDuck == null) {
+            byDuck = new LongMap<>();
+            bestByEvent.put(eventId, byDuck);
+        }
+        best(bestByDuck, duckId).add(time);
+        best(byDuck, duckId).add(time);
+        log(StoreJournal.RACE_TIME, w -> {
+            pair(w, eventId, duckId);
+            w.putDouble(time);
+        });
+    }
+
+    private static BestTime best(LongMap<BestTime> map, long duckId) {
+        BestTime b = map.get(duckId);
+        if (b == null) {
+            b = new BestTime();
+            map.put(duckId, b);
+        }
+        return b;
+    }
+
+    private static void pair(RecordWriter w, long a, long b) {
+        w.putLong(a);
+        w.putLong(b);
+    }
+
+    private void log(byte op, Consumer<RecordWriter> payload) {
+        if (journal != null) journal.append(op, payload);
+    }
+}
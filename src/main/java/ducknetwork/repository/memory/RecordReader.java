@@ -0,0 +1,179 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.Person;
+import ducknetwork.domain.User;
+import ducknetwork.repository.JdbcDuckRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Sequential reader for the format of {@link RecordWriter}. {@link Buffered} reads a file through a heap
+ * buffer (the journal, which is truncated later and so must not stay mapped); {@link Mapped} walks a file
+ * through read-only memory-mapped windows (the snapshots).
+ */
+abstract class RecordReader {
+
+    ByteBuffer buf;
+
+    /**
+     * Makes at least n bytes readable in {@link #buf}; false if the file ends first.
+     */
+    abstract boolean ensure(int n);
+
+    /** Absolute file position of the next byte. */
+    abstract long position();
+
+    private void require(int n) {
+        if (!ensure(n)) throw new IllegalStateException("Unexpected end of file at " + position());
+    }
+
+    byte getByte() {
+        require(1);
+        return buf.get();
+    }
+
+    int getInt() {
+        require(4);
+        return buf.getInt();
+    }
+
+    long getLong() {
+        require(8);
+        return buf.getLong();
+    }
+
+    double getDouble() {
+        require(8);
+        return buf.getDouble();
+    }
+
+    String getString() {
+        int length = getInt();
+        if (length < 0) return null;
+        require(length);
+        if (buf.hasArray()) {
+            String s = new String(buf.array(), buf.arrayOffset() + buf.position(), length, StandardCharsets.UTF_8);
+            buf.position(buf.position() + length);
+            return s;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    double[] getDoubles() {
+        int n = getInt();
+        if (n < 0) return null;
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) values[i] = getDouble();
+        return values;
+    }
+
+    User getUser() {
+        byte kind = getByte();
+        long id = getLong();
+        String username = getString();
+        String email = getString();
+        String password = getString();
+        if (kind == RecordWriter.DUCK) {
+            double speed = getDouble();
+            double endurance = getDouble();
+            return JdbcDuckRepository.createDuckInstance(id, username, email, password, speed, endurance, getString());
+        }
+        String firstName = getString();
+        String lastName = getString();
+        long birth = getLong();
+        String occupation = getString();
+        int empathy = getInt();
+        return new Person(id, username, email, password, firstName, lastName,
+                birth == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(birth), occupation, empathy);
+    }
+
+    /**
+     * Reads a channel from its current position through a heap buffer that is refilled as needed.
+     */
+    static final class Buffered extends RecordReader {
+        private final FileChannel channel;
+        private long base; // file position of buf[0]
+        private boolean eof;
+
+        Buffered(FileChannel channel, int capacity) throws IOException {
+            this.channel = channel;
+            this.base = channel.position();
+            this.buf = ByteBuffer.allocate(capacity).flip();
+        }
+
+        @Override
+        long position() {
+            return base + buf.position();
+        }
+
+        @Override
+        boolean ensure(int n) {
+            if (buf.remaining() >= n) return true;
+            if (eof) return false;
+            base += buf.position();
+            if (buf.capacity() < n) {
+                ByteBuffer bigger = ByteBuffer.allocate(n);
+                bigger.put(buf);
+                buf = bigger;
+            } else {
+                buf.compact();
+            }
+            try {
+                while (buf.position() < n) {
+                    if (channel.read(buf) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read journal: " + e.getMessage(), e);
+            } finally {
+                buf.flip();
+            }
+            return buf.remaining() >= n;
+        }
+    }
+
+    /**
+     * Reads {@code length} bytes of a file through read-only mapped windows of at most {@code window} bytes.
+     */
+    static final class Mapped extends RecordReader {
+        private final FileChannel channel;
+        private final long length;
+        private final int window;
+        private long base;
+
+        Mapped(FileChannel channel, long length, int window) throws IOException {
+            this.channel = channel;
+            this.length = length;
+            this.window = window;
+            this.buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(window, length));
+        }
+
+        @Override
+        long position() {
+            return base + buf.position();
+        }
+
+        @Override
+        boolean ensure(int n) {
+            if (buf.remaining() >= n) return true;
+            long next = position();
+            int size = (int) Math.min(window, length - next);
+            if (n > size) return false;
+            try {
+                base = next;
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, base, size);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to map snapshot window: " + e.getMessage(), e);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.Duck;
+import ducknetwork.domain.Person;
+import ducknetwork.domain.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Sequential binary writer used by the journal and the snapshots.
+ * Subclasses decide what happens when the current buffer is full: {@link Heap} grows,
+ * {@link Mapped} maps the next window of the file.
+ */
+abstract class RecordWriter {
+
+    static final byte PERSON = 0;
+    static final byte DUCK = 1;
+
+    ByteBuffer buf;
+
+    /** Makes room for at least n more bytes in {@link #buf}. */
+    abstract void ensure(int n);
+
+    void putByte(byte v) {
+        ensure(1);
+        buf.put(v);
+    }
+
+    void putInt(int v) {
+        ensure(4);
+        buf.putInt(v);
+    }
+
+    void putLong(long v) {
+        ensure(8);
+        buf.putLong(v);
+    }
+
+    void putDouble(double v) {
+        ensure(8);
+        buf.putDouble(v);
+    }
+
+    /** Length-prefixed UTF-8; null is written as length -1. */
+    void putString(String s) {
+        if (s == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + bytes.length);
+        buf.putInt(bytes.length);
+        buf.put(bytes);
+    }
+
+    /** Count-prefixed array; null is written as count -1. */
+    void putDoubles(double[] values) {
+        if (values == null) {
+            putInt(-1);
+            return;
+        }
+        putInt(values.length);
+        for (double v : values) putDouble(v);
+    }
+
+    void putUser(User u) {
+        putByte(u instanceof Duck ? DUCK : PERSON);
+        putLong(u.getId());
+        putString(u.getUsername());
+        putString(u.getEmail());
+        putString(u.getPassword());
+        if (u instanceof Duck d) {
+            putDouble(d.getSpeed());
+            putDouble(d.getEndurance());
+            putString(d.getType());
+        } else {
+            Person p = (Person) u;
+            putString(p.getFirstName());
+            putString(p.getLastName());
+            putLong(p.getBirthDate() == null ? Long.MIN_VALUE : p.getBirthDate().toEpochDay());
+            putString(p.getOccupation());
+            putInt(p.getEmpathy());
+        }
+    }
+
+    /**
+     * Growable heap buffer (journal records are framed here before being written to the channel).
+     */
+    static final class Heap extends RecordWriter {
+
+        Heap(int capacity) {
+            buf = ByteBuffer.allocate(capacity);
+        }
+
+        @Override
+        void ensure(int n) {
+            if (buf.remaining() >= n) return;
+            int capacity = Math.max(buf.capacity() * 2, buf.position() + n);
+            ByteBuffer bigger = ByteBuffer.allocate(capacity);
+            buf.flip();
+            bigger.put(buf);
+            buf = bigger;
+        }
+    }
+
+    /**
+     * Only counts (and checksums) the bytes that would be written: the sizing pass before a mapped write.
+     */
+    static final class Counter extends RecordWriter {
+        private final CRC32C crc = new CRC32C();
+        private long counted;
+
+        Counter() {
+            buf = ByteBuffer.allocate(64 * 1024);
+        }
+
+        @Override
+        void ensure(int n) {
+            if (buf.remaining() >= n) return;
+            counted += buf.position();
+            crc.update(buf.array(), 0, buf.position());
+            buf = buf.capacity() >= n ? buf.clear() : ByteBuffer.allocate(n);
+        }
+
+        long length() {
+            return counted + buf.position();
+        }
+
+        /** CRC32C of everything counted; call once, at the end. */
+        int checksum() {
+            crc.update(buf.array(), 0, buf.position());
+            return (int) crc.getValue();
+        }
+    }
+
+    /**
+     * Writes exactly {@code length} bytes of a file through memory-mapped windows of at most
+     * {@code window} bytes. The length comes from a {@link Counter} pass, so the file never has to be
+     * truncated while mapped (which some platforms refuse).
+     */
+    static final class Mapped extends RecordWriter {
+        private final FileChannel channel;
+        private final long length;
+        private final int window;
+        private long base;
+
+        Mapped(FileChannel channel, long length, int window) throws IOException {
+            this.channel = channel;
+            this.length = length;
+            this.window = window;
+            this.buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(window, length));
+        }
+
+        long position() {
+            return base + buf.position();
+        }
+
+        @Override
+        void ensure(int n) {
+            if (buf.remaining() >= n) return;
+            long next = position();
+            int size = (int) Math.min(window, length - next);
+            if (n > size) throw new IllegalStateException("Write of " + n + " bytes past the mapped region at " + next);
+            try {
+                ((MappedByteBuffer) buf).force();
+                base = next;
+                buf = channel.map(FileChannel.MapMode.READ_WRITE, base, size);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to map snapshot window: " + e.getMessage(), e);
+            }
+        }
+
+        /** Flushes the last window to disk. */
+        void finish() {
+            if (position() != length)
+                throw new IllegalStateException("Snapshot wrote " + position() + " bytes, expected " + length);
+            ((MappedByteBuffer) buf).force();
+        }
+    }
+}
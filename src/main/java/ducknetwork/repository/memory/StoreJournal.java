@@ -0,0 +1,288 @@
+package ducknetwork.repository.memory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of a durable {@link MemoryStore}.
+ * File layout: a header (magic, version, generation) followed by records
+ * {@code [int length][int crc32c][byte op][payload]}, where length and checksum cover op + payload.
+ * <p>
+ * Records are framed into an in-memory buffer under the store's write lock ({@link #append});
+ * writers then call {@link #sync} outside the lock. Group commit: the first waiter writes and fsyncs
+ * everything appended so far, and whoever queued up behind it is covered by the same fsync.
+ * <p>
+ * The generation ties the log to a snapshot: after a checkpoint writes snapshot G+1, the log is emptied
+ * and restarted as generation G+1. On recovery a log older than the snapshot is stale and discarded, and
+ * replay stops at the first torn or corrupt record (the tail of an interrupted write), which is cut off.
+ */
+final class StoreJournal implements Closeable {
+
+    static final byte PUT_USER = 1;
+    static final byte DELETE_USER = 2;
+    static final byte ADD_FRIEND = 3;
+    static final byte REMOVE_FRIEND = 4;
+    static final byte PUT_CARD = 5;
+    static final byte DELETE_CARD = 6;
+    static final byte ADD_CARD_MEMBER = 7;
+    static final byte REMOVE_CARD_MEMBER = 8;
+    static final byte PUT_EVENT = 9;
+    static final byte DELETE_EVENT = 10;
+    static final byte SUBSCRIBE = 11;
+    static final byte UNSUBSCRIBE = 12;
+    static final byte RACE_TIME = 13;
+
+    private static final long MAGIC = 0x44554B57414C3031L; // "DUKWAL01"
+    private static final int VERSION = 1;
+    private static final int HEADER = 8 + 4 + 8;
+    private static final int FRAME = 8;
+    private static final int MAX_RECORD = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final boolean fsync;
+    private final CRC32C crc = new CRC32C();
+    private final Object syncLock = new Object();
+
+    // guarded by this
+    private RecordWriter.Heap pending = new RecordWriter.Heap(64 * 1024);
+    private RecordWriter.Heap spare = new RecordWriter.Heap(64 * 1024);
+    private long appendedLsn;
+
+    // guarded by syncLock
+    private long generation;
+    private volatile long durableLsn;
+    private volatile long fileSize;
+    private volatile IOException failure;
+
+    private StoreJournal(FileChannel channel, boolean fsync) {
+        this.channel = channel;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Opens (or creates) the log and replays it into the store, which must already hold the snapshot
+     * of the given generation.
+     */
+    static StoreJournal open(Path file, long snapshotGeneration, boolean fsync, MemoryStore store) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        StoreJournal journal = new StoreJournal(channel, fsync);
+        try {
+            long logGeneration = journal.readHeader();
+            if (logGeneration > snapshotGeneration) {
+                throw new IllegalStateException("Journal " + file + " has generation " + logGeneration
+                        + " but the newest valid snapshot is generation " + snapshotGeneration);
+            }
+            if (logGeneration == snapshotGeneration) {
+                journal.generation = logGeneration;
+                journal.replay(store);
+            } else {
+                journal.restart(snapshotGeneration); // missing, empty or already folded into the snapshot
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    long generation() {
+        synchronized (syncLock) {
+            return generation;
+        }
+    }
+
+    /** Bytes in the log file, header included. */
+    long size() {
+        return fileSize;
+    }
+
+    /** True if anything was appended since the last checkpoint. */
+    boolean hasRecords() {
+        return fileSize > HEADER || appended() > durableLsn;
+    }
+
+    synchronized long appended() {
+        return appendedLsn;
+    }
+
+    /**
+     * Frames one record into the pending buffer and returns its sequence number. Called under the store's
+     * write lock, so records are in the same order as the changes they describe.
+     */
+    synchronized long append(byte op, Consumer<RecordWriter> payload) {
+        RecordWriter.Heap w = pending;
+        int start = w.buf.position();
+        w.ensure(FRAME);
+        w.buf.position(start + FRAME);
+        w.putByte(op);
+        payload.accept(w);
+
+        ByteBuffer b = w.buf;
+        int length = b.position() - start - FRAME;
+        if (length > MAX_RECORD) {
+            b.position(start);
+            throw new IllegalArgumentException("Journal record of " + length + " bytes is too large");
+        }
+        crc.reset();
+        crc.update(b.array(), b.arrayOffset() + start + FRAME, length);
+        b.putInt(start, length);
+        b.putInt(start + 4, (int) crc.getValue());
+        return ++appendedLsn;
+    }
+
+    /**
+     * Returns once every record up to lsn is written (and fsynced, with {@code memory.fsync=true}).
+     */
+    void sync(long lsn) {
+        if (durableLsn >= lsn) return;
+        synchronized (syncLock) {
+            if (durableLsn >= lsn) return; // covered by the previous leader's fsync
+            flush();
+        }
+    }
+
+    /** Makes everything appended so far durable. */
+    void syncAll() {
+        synchronized (syncLock) {
+            flush();
+        }
+    }
+
+    /**
+     * Empties the log and starts the given generation. Only called by a checkpoint, after {@link #syncAll()},
+     * while the store is read-locked (so nothing new is appended).
+     */
+    void restart(long newGeneration) throws IOException {
+        synchronized (syncLock) {
+            // truncate first: a crash in between leaves an empty file, which recovery treats as a new log
+            channel.truncate(0);
+            channel.force(true);
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putLong(MAGIC).putInt(VERSION).putLong(newGeneration).flip();
+            channel.position(0);
+            writeFully(header);
+            channel.force(true);
+            generation = newGeneration;
+            fileSize = HEADER;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            syncAll();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // called with syncLock held; after a failed write the log refuses further syncs, since the records
+    // of that batch are lost and later ones would leave a gap
+    private void flush() {
+        if (failure != null) throw new RuntimeException("Journal is unusable after a failed write: " + failure.getMessage(), failure);
+        RecordWriter.Heap batch;
+        long target;
+        synchronized (this) {
+            if (durableLsn == appendedLsn) return;
+            batch = pending;
+            pending = spare;
+            spare = null;
+            target = appendedLsn;
+        }
+        try {
+            batch.buf.flip();
+            fileSize += batch.buf.remaining();
+            writeFully(batch.buf);
+            if (fsync) channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw new RuntimeException("Failed to write journal: " + e.getMessage(), e);
+        } finally {
+            batch.buf.clear();
+            synchronized (this) {
+                spare = batch;
+            }
+        }
+        durableLsn = target;
+    }
+
+    private void writeFully(ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) channel.write(b);
+    }
+
+    /** Generation in the header, or -1 if the file is new or too short to have one. */
+    private long readHeader() throws IOException {
+        if (channel.size() < HEADER) return -1;
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        channel.position(0);
+        while (header.hasRemaining() && channel.read(header) >= 0) { }
+        header.flip();
+        if (header.getLong() != MAGIC || header.getInt() != VERSION)
+            throw new IllegalStateException("Not a DuckNetwork journal (or unsupported version)");
+        return header.getLong();
+    }
+
+    private void replay(MemoryStore store) throws IOException {
+        channel.position(HEADER);
+        RecordReader.Buffered in = new RecordReader.Buffered(channel, 1 << 20);
+        long valid = HEADER;
+        long records = 0;
+
+        while (in.ensure(FRAME)) {
+            int length = in.buf.getInt();
+            int checksum = in.buf.getInt();
+            if (length <= 0 || length > MAX_RECORD || !in.ensure(length)) break;
+            crc.reset();
+            crc.update(in.buf.slice(in.buf.position(), length));
+            if ((int) crc.getValue() != checksum) break;
+
+            long end = in.position() + length;
+            apply(in, store);
+            if (in.position() != end)
+                throw new IllegalStateException("Journal record at " + valid + " has an unexpected length");
+            valid = end;
+            records++;
+        }
+
+        long size = channel.size();
+        if (valid < size) {
+            System.err.println("Jurnal: " + (size - valid) + " octeți incompleți/corupți la final, ignorați");
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        channel.position(valid);
+        fileSize = valid;
+        if (records > 0) System.out.println("Jurnal: " + records + " înregistrări reaplicate");
+    }
+
+    private static void apply(RecordReader in, MemoryStore store) {
+        byte op = in.getByte();
+        switch (op) {
+            case PUT_USER: store.insertUser(in.getUser()); break;
+            case DELETE_USER: store.deleteUser(in.getLong()); break;
+            case ADD_FRIEND: store.addFriendship(in.getLong(), in.getLong()); break;
+            case REMOVE_FRIEND: store.removeFriendship(in.getLong(), in.getLong()); break;
+            case PUT_CARD: store.insertCard(in.getLong(), in.getString()); break;
+            case DELETE_CARD: store.deleteCard(in.getLong()); break;
+            case ADD_CARD_MEMBER: store.addCardMember(in.getLong(), in.getLong()); break;
+            case REMOVE_CARD_MEMBER: store.removeCardMember(in.getLong(), in.getLong()); break;
+            case PUT_EVENT: {
+                long id = in.getLong();
+                String name = in.getString();
+                store.insertEvent(id, new MemoryStore.EventRow(name, in.getDoubles()));
+                break;
+            }
+            case DELETE_EVENT: store.deleteEvent(in.getLong()); break;
+            case SUBSCRIBE: store.subscribe(in.getLong(), in.getLong()); break;
+            case UNSUBSCRIBE: store.unsubscribe(in.getLong(), in.getLong()); break;
+            case RACE_TIME: store.addRaceTime(in.getLong(), in.getLong(), in.getDouble()); break;
+            default: throw new IllegalStateException("Unknown journal record type " + op);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Compacted image of a {@link MemoryStore} in {@code snapshot-<generation>.bin}, written and read through
+ * memory-mapped windows. The file is sized exactly by a counting pass, so it is never truncated while mapped,
+ * and ends with a CRC32C of its contents. A new snapshot never overwrites an older one: an interrupted write
+ * only leaves a file that fails the checksum, and recovery falls back to the previous generation.
+ * <p>
+ * Layout: header (magic, version, generation, next ids), then users, friendships, cards, card members,
+ * events, subscriptions and race aggregates, each section prefixed by its entry count. Relations are stored
+ * as adjacency lists, so loading sizes each set once instead of growing it edge by edge.
+ */
+final class StoreSnapshot {
+
+    private static final long MAGIC = 0x44554B534E503031L; // "DUKSNP01"
+    private static final int VERSION = 1;
+    private static final int WINDOW = 64 * 1024 * 1024;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private StoreSnapshot() {}
+
+    /**
+     * Writes the store as the given generation and forces it to disk. The caller holds the store's lock.
+     */
+    static long write(Path dir, MemoryStore store, long generation) throws IOException {
+        RecordWriter.Counter counter = new RecordWriter.Counter();
+        writeState(counter, store, generation);
+        long length = counter.length() + 4;
+        int checksum = counter.checksum();
+
+        try (FileChannel channel = FileChannel.open(fileFor(dir, generation), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            RecordWriter.Mapped out = new RecordWriter.Mapped(channel, length, WINDOW);
+            writeState(out, store, generation);
+            out.putInt(checksum);
+            out.finish();
+        }
+        return length;
+    }
+
+    /**
+     * Loads the newest intact snapshot into an empty store; returns its generation, or 0 if there is none.
+     */
+    static long loadLatest(Path dir, MemoryStore store) throws IOException {
+        List<Long> generations = generations(dir);
+        Collections.reverse(generations);
+        for (long generation : generations) {
+            Path file = fileFor(dir, generation);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long length = channel.size();
+                if (!intact(channel, length)) {
+                    System.err.println("Snapshot " + file + " este incomplet sau corupt, se folosește unul mai vechi");
+                    continue;
+                }
+                readState(new RecordReader.Mapped(channel, length - 4, WINDOW), store, generation);
+                return generation;
+            }
+        }
+        return 0;
+    }
+
+    /** Best effort: snapshots older than the given generation are no longer needed. */
+    static void deleteOlder(Path dir, long generation) {
+        try {
+            for (long g : generations(dir)) {
+                if (g < generation) Files.deleteIfExists(fileFor(dir, g));
+            }
+        } catch (IOException e) {
+            // a file still mapped (or locked) is removed at a later checkpoint
+        }
+    }
+
+    private static Path fileFor(Path dir, long generation) {
+        return dir.resolve(PREFIX + generation + SUFFIX);
+    }
+
+    /** Generations of the snapshot files in dir, ascending. */
+    private static List<Long> generations(Path dir) throws IOException {
+        List<Long> list = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path f : files) {
+                String name = f.getFileName().toString();
+                try {
+                    list.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        Collections.sort(list);
+        return list;
+    }
+
+    private static boolean intact(FileChannel channel, long length) throws IOException {
+        if (length < 4 + 8 + 4 + 8) return false;
+        long body = length - 4;
+        CRC32C crc = new CRC32C();
+        for (long pos = 0; pos < body; pos += WINDOW) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, body - pos));
+            crc.update(window);
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(4);
+        while (trailer.hasRemaining() && channel.read(trailer, body + trailer.position()) >= 0) { }
+        trailer.flip();
+        return trailer.remaining() == 4 && trailer.getInt() == (int) crc.getValue();
+    }
+
+    private static void writeState(RecordWriter w, MemoryStore s, long generation) {
+        w.putLong(MAGIC);
+        w.putInt(VERSION);
+        w.putLong(generation);
+        w.putLong(s.nextUserId);
+        w.putLong(s.nextCardId);
+        w.putLong(s.nextEventId);
+
+        w.putInt(s.users.size());
+        for (int i = 0; i < s.userIds.size(); i++) {
+            User u = s.users.get(s.userIds.at(i));
+            if (u != null) w.putUser(u);
+        }
+        writeAdjacency(w, s.friends);
+
+        w.putInt(s.cards.size());
+        for (int i = 0; i < s.cardIds.size(); i++) {
+            long id = s.cardIds.at(i);
+            String name = s.cards.get(id);
+            if (name == null) continue;
+            w.putLong(id);
+            w.putString(name);
+        }
+        writeAdjacency(w, s.cardMembers);
+
+        w.putInt(s.events.size());
+        for (int i = 0; i < s.eventIds.size(); i++) {
+            long id = s.eventIds.at(i);
+            MemoryStore.EventRow row = s.events.get(id);
+            if (row == null) continue;
+            w.putLong(id);
+            w.putString(row.name());
+            w.putDoubles(row.buoys());
+        }
+        writeAdjacency(w, s.eventSubscribers);
+
+        writeBestTimes(w, s.bestByDuck);
+        w.putInt(s.bestByEvent.size());
+        s.bestByEvent.forEach((eventId, byDuck) -> {
+            w.putLong(eventId);
+            writeBestTimes(w, byDuck);
+        });
+    }
+
+    /** One entry per key: the key, the set size, then the set. */
+    private static void writeAdjacency(RecordWriter w, LongMap<LongSet> relation) {
+        w.putInt(relation.size());
+        relation.forEach((a, set) -> {
+            w.putLong(a);
+            w.putInt(set.size());
+            set.forEach(w::putLong);
+        });
+    }
+
+    /** Reads a relation written by {@link #writeAdjacency}; the reverse direction, if any, is rebuilt. */
+    private static void readAdjacency(RecordReader in, LongMap<LongSet> relation, LongMap<LongSet> reverse) {
+        int entries = in.getInt();
+        relation.ensureCapacity(entries);
+        for (int i = 0; i < entries; i++) {
+            long a = in.getLong();
+            int n = in.getInt();
+            LongSet set = new LongSet(n);
+            for (int k = 0; k < n; k++) {
+                long b = in.getLong();
+                set.add(b);
+                if (reverse != null) MemoryStore.link(reverse, b, a);
+            }
+            relation.put(a, set);
+        }
+    }
+
+    private static void writeBestTimes(RecordWriter w, LongMap<MemoryStore.BestTime> byDuck) {
+        w.putInt(byDuck.size());
+        byDuck.forEach((duckId, b) -> {
+            w.putLong(duckId);
+            w.putDouble(b.best);
+            w.putLong(b.races);
+        });
+    }
+
+    private static void readState(RecordReader in, MemoryStore s, long generation) {
+        if (in.getLong() != MAGIC || in.getInt() != VERSION)
+            throw new IllegalStateException("Not a DuckNetwork snapshot (or unsupported version)");
+        if (in.getLong() != generation)
+            throw new IllegalStateException("Snapshot generation does not match its file name");
+        s.nextUserId = in.getLong();
+        s.nextCardId = in.getLong();
+        s.nextEventId = in.getLong();
+
+        int users = in.getInt();
+        s.users.ensureCapacity(users);
+        for (int n = users; n > 0; n--) s.insertUser(in.getUser());
+        readAdjacency(in, s.friends, null); // symmetric: both directions are stored
+
+        for (int n = in.getInt(); n > 0; n--) s.insertCard(in.getLong(), in.getString());
+        readAdjacency(in, s.cardMembers, s.duckCards);
+
+        for (int n = in.getInt(); n > 0; n--) {
+            long id = in.getLong();
+            String name = in.getString();
+            s.insertEvent(id, new MemoryStore.EventRow(name, in.getDoubles()));
+        }
+        readAdjacency(in, s.eventSubscribers, s.userEvents);
+
+        readBestTimes(in, s.bestByDuck);
+        for (int n = in.getInt(); n > 0; n--) {
+            long eventId = in.getLong();
+            LongMap<MemoryStore.BestTime> byDuck = new LongMap<>();
+            readBestTimes(in, byDuck);
+            s.bestByEvent.put(eventId, byDuck);
+        }
+    }
+
+    private static void readBestTimes(RecordReader in, LongMap<MemoryStore.BestTime> byDuck) {
+        for (int n = in.getInt(); n > 0; n--) {
+            long duckId = in.getLong();
+            MemoryStore.BestTime b = new MemoryStore.BestTime();
+            b.best = in.getDouble();
+            b.races = in.getLong();
+            byDuck.put(duckId, b);
+        }
+    }
+}
@@ -2,246 +2,813 @@ package ducknetwork.service;
 
 import ducknetwork.domain.*;
 import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.graph.CommunityIndex;
+import ducknetwork.graph.DiameterEngine;
+import ducknetwork.graph.FriendGraph;
+import ducknetwork.graph.FriendRecommender;
+import ducknetwork.graph.PathFinder;
+import ducknetwork.metrics.Metrics;
 import ducknetwork.repository.*;
+import ducknetwork.util.AppConfig;
+import ducknetwork.util.ThreadPools;
 
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service layer. Utilizează Repository-uri dedicate pentru persistență.
  */
 public class NetworkService {
 
-    // Dependințe injectate (instanțiate aici pentru simplitate)
-    private final UserRepository userRepo = new UserRepository();
-    private final FriendRepository friendRepo = new FriendRepository();
-    private final CardRepository cardRepo = new CardRepository();
-    private final CardMemberRepository cardMemberRepo = new CardMemberRepository();
-    private final EventRepository eventRepo = new EventRepository();
-    private final EventSubscriberRepository eventSubscriberRepo = new EventSubscriberRepository();
-    private final DuckRepository duckRepo = new DuckRepository();
+    // Dependințe injectate: PostgreSQL sau stocarea embedded în memorie (vezi Repositories)
+    private final Repositories repositories;
+    private final Repositories.Storage storage;
+    private final UserRepository userRepo;
+    private final FriendRepository friendRepo;
+    private final CardRepository cardRepo;
+    private final CardMemberRepository cardMemberRepo;
+    private final EventRepository eventRepo;
+    private final EventSubscriberRepository eventSubscriberRepo;
+    private final DuckRepository duckRepo;
+    private final BulkImportRepository bulkImportRepo;
+    private final RaceResultRepository raceResultRepo;
+    private final CommunityRepository communityRepo;
+
+    /** Unde se calculează componentele conexe pentru getCommunities / communitySizes. */
+    public enum CommunityEngine { JVM, DATABASE }
+
+    // communities.engine = auto | jvm | db; în auto, graful trece în BD peste pragul de prietenii
+    private final String communityEngineSetting = AppConfig.get("communities.engine", "auto").trim().toLowerCase();
+    private final long dbCommunityThreshold = AppConfig.getLong("communities.dbThresholdFriendships", 5_000_000L);
+
+    // Curse concurente: executor (virtual threads cand sunt disponibile) si limita de acces la BD
+    private final ExecutorService raceExecutor = ThreadPools.newPerTaskExecutor("race",
+            Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+    private final Semaphore dbPermits = new Semaphore(
+            AppConfig.getInt("race.dbParallelism", AppConfig.getInt("db.pool.maximumPoolSize", 10)));
+
+    // Notificările evenimentelor: livrate asincron, pe loturi, către abonații persistați
+    private final NotificationDispatcher notifications;
+
+    // Latențe și contoare per operație (comanda "stats")
+    private final Metrics metrics = Metrics.getInstance();
+
+    // graphVersion crește la fiecare modificare a grafului; un snapshot este valabil doar pentru versiunea
+    // citită înainte de încărcare, deci un load concurent cu o modificare nu mai poate publica graful vechi
+    private final AtomicLong graphVersion = new AtomicLong();
+    private volatile GraphSnapshot graphSnapshot;
+    private volatile CommunityIndex communityIndex;
+    // publicarea indexului de comunități și actualizările lui incrementale se fac sub același lock
+    private final Object communityLock = new Object();
+    private volatile FriendRecommender recommender;
+    private volatile PathFinder pathFinder;
+    private volatile PrecomputedRecommendations precomputed;
+
+    private record GraphSnapshot(FriendGraph graph, long version) {}
+
+    /** Componentele calculate în BD (vezi {@link #dbComponents()}) pentru o anumită versiune a grafului. */
+    private record DbComponents(List<CommunityRepository.Component> sizes, long version) {}
+
+    private volatile DbComponents dbComponents;
+
+    /** Recomandări calculate în avans pentru un anumit snapshot al grafului. */
+    private record PrecomputedRecommendations(FriendGraph graph, FriendRecommender.Scoring scoring, int k,
+                                              List<List<FriendRecommender.Recommendation>> byNode) {}
+
+    /**
+     * Service peste stocarea aleasă în configurare (cheia {@code storage}).
+     */
+    public NetworkService() {
+        this(Repositories.fromConfig());
+    }
+
+    public NetworkService(Repositories repos) {
+        this.repositories = repos;
+        this.storage = repos.storage();
+        this.userRepo = repos.users();
+        this.friendRepo = repos.friends();
+        this.cardRepo = repos.cards();
+        this.cardMemberRepo = repos.cardMembers();
+        this.eventRepo = repos.events();
+        this.eventSubscriberRepo = repos.eventSubscribers();
+        this.duckRepo = repos.ducks();
+        this.bulkImportRepo = repos.bulkImport();
+        this.raceResultRepo = repos.raceResults();
+        this.communityRepo = repos.communities();
+        this.notifications = new NotificationDispatcher(eventSubscriberRepo);
+        if (storage == Repositories.Storage.POSTGRES) {
+            // modificările făcute de alte instanțe pe aceeași BD (vezi ChangeFeed)
+            ChangeFeed.getInstance().addListener(this::onRemoteChanges);
+        }
+    }
+
+    /**
+     * Utilizatorii sau prieteniile modificate de altă instanță fac snapshot-ul grafului și indexul de
+     * comunități invalide; UserCache este deja invalidat de ChangeFeed.
+     */
+    private void onRemoteChanges(List<ChangeFeed.Change> changes) {
+        for (ChangeFeed.Change c : changes) {
+            ChangeFeed.Kind kind = c.kind();
+            if (kind == ChangeFeed.Kind.USER || kind == ChangeFeed.Kind.FRIENDSHIP || kind == ChangeFeed.Kind.ALL) {
+                resetGraphState();
+                return;
+            }
+        }
+    }
+
+    public Repositories.Storage storage() {
+        return storage;
+    }
 
 
     /**
      * Adaugă un utilizator (Person sau Duck) prin UserRepository.
      */
     public User addUser(User user) {
-        return userRepo.save(user);
+        return metrics.time("NetworkService.addUser", () -> {
+            User saved = userRepo.save(user);
+            graphChanged(idx -> idx.addUser(saved.getId()));
+            return saved;
+        });
     }
 
     /**
      * Șterge un utilizator prin UserRepository.
      */
     public void removeUser(Long id) {
-        userRepo.delete(id);
+        metrics.time("NetworkService.removeUser", () -> {
+            userRepo.delete(id);
+            graphChanged(idx -> idx.removeUser(id));
+        });
     }
 
     /**
      * Gasește un utilizator după ID.
      */
     public User findById(Long id) {
-        User u = userRepo.findById(id);
-        if (u == null)
-            throw new DomainExceptions.UserNotFoundException("User with id " + id + " not found");
-        return u;
+        return metrics.time("NetworkService.findById", () -> {
+            User u = userRepo.findById(id);
+            if (u == null)
+                throw new DomainExceptions.UserNotFoundException("User with id " + id + " not found");
+            return u;
+        });
+    }
+
+    /**
+     * Contoarele cache-ului de utilizatori (hit / miss / evictions), pentru dimensionare.
+     */
+    public UserCache.Stats userCacheStats() {
+        return UserCache.getInstance().stats();
+    }
+
+    /**
+     * Contoarele pipeline-ului de notificări (livrări, loturi, adâncimea cozii, throughput).
+     */
+    public NotificationDispatcher.Stats notificationStats() {
+        return notifications.stats();
+    }
+
+    /**
+     * Contoarele canalului de invalidare între instanțe (LISTEN/NOTIFY); întârzierea apare în "stats".
+     */
+    public ChangeFeed.Stats changeFeedStats() {
+        return ChangeFeed.getInstance().stats();
+    }
+
+    /**
+     * Latențele (p50 / p99 / p999) și numărul de apeluri/erori pentru fiecare metodă de repository
+     * și operație a serviciului; cu reset, contoarele pornesc din nou de la zero.
+     */
+    public String metricsReport(boolean reset) {
+        return metrics.report(reset);
+    }
+
+    /**
+     * Oprește serviciul: așteaptă cursele pornite, livrează notificările rămase în coadă și închide
+     * stocarea embedded (snapshot final), dacă este cazul.
+     */
+    public void shutdown() {
+        raceExecutor.shutdown();
+        try {
+            raceExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        notifications.shutdown();
+        repositories.close();
     }
 
     /**
      * Listeaza toți utilizatorii (Persoane + Rate).
      */
     public List<User> listAllUsers() {
-        return userRepo.findAll();
+        return metrics.time("NetworkService.listAllUsers", () -> {
+            return userRepo.findAll();
+        });
+    }
+
+    /**
+     * Import în masă de utilizatori (CSV/NDJSON) prin COPY; raportează rânduri/secundă.
+     */
+    public BulkImportRepository.ImportReport importUsers(Path file) {
+        return metrics.time("NetworkService.importUsers", () -> {
+            BulkImportRepository.ImportReport report = bulkImporter().importUsers(file);
+            resetGraphState();
+            return report;
+        });
+    }
+
+    /**
+     * Import în masă de prietenii (perechi de username-uri) prin COPY.
+     */
+    public BulkImportRepository.ImportReport importFriendships(Path file) {
+        return metrics.time("NetworkService.importFriendships", () -> {
+            BulkImportRepository.ImportReport report = bulkImporter().importFriendships(file);
+            resetGraphState();
+            return report;
+        });
+    }
+
+    /**
+     * Toți utilizatorii ca stream leneș, pagină cu pagină (keyset), cu memorie constantă.
+     */
+    public Stream<User> streamUsers(int pageSize) {
+        return KeysetPager.stream(pageSize, userRepo::findPage, User::getId);
     }
 
     public void addFriend(Long id1, Long id2) {
-        if (id1 == null || id2 == null) throw new IllegalArgumentException("IDs cannot be null");
-        if (id1.equals(id2)) throw new IllegalArgumentException("A user cannot befriend themselves");
-        friendRepo.addFriend(id1, id2);
+        metrics.time("NetworkService.addFriend", () -> {
+            if (id1 == null || id2 == null) throw new IllegalArgumentException("IDs cannot be null");
+            if (id1.equals(id2)) throw new IllegalArgumentException("A user cannot befriend themselves");
+            friendRepo.addFriend(id1, id2);
+            graphChanged(idx -> idx.addFriend(id1, id2));
+        });
     }
 
     public void removeFriend(Long id1, Long id2) {
-        friendRepo.removeFriend(id1, id2);
+        metrics.time("NetworkService.removeFriend", () -> {
+            friendRepo.removeFriend(id1, id2);
+            graphChanged(idx -> idx.removeFriend(id1, id2));
+        });
     }
 
-    public int numberOfCommunities() {
-        return getCommunities().size();
+    /**
+     * Adaugă un lot de prietenii (perechi de id-uri) într-o singură tranzacție.
+     */
+    public void addFriends(Collection<long[]> pairs) {
+        metrics.time("NetworkService.addFriends", () -> {
+            friendRepo.addFriends(pairs);
+            graphChanged(idx -> {
+                for (long[] p : pairs) idx.addFriend(p[0], p[1]);
+            });
+        });
     }
 
     /**
-     * Compute connected components of the friendship graph.
+     * Șterge un lot de prietenii într-o singură tranzacție.
      */
-    public List<List<User>> getCommunities() {
-        List<User> allUsers = userRepo.findAll();
-        Map<Long, User> byId = allUsers.stream()
-                .collect(Collectors.toMap(User::getId, u -> u));
+    public void removeFriends(Collection<long[]> pairs) {
+        metrics.time("NetworkService.removeFriends", () -> {
+            friendRepo.removeFriends(pairs);
+            graphChanged(idx -> {
+                for (long[] p : pairs) idx.removeFriend(p[0], p[1]);
+            });
+        });
+    }
+
+    /**
+     * Numărul de comunități: din indexul incremental, dacă este construit, altfel după
+     * {@link #communityEngine()}. Cu motorul din BD nu încarcă graful, dar primul apel după o modificare
+     * rulează o propagare completă a etichetelor; rezultatul e refolosit până la următoarea modificare.
+     */
+    public int numberOfCommunities() {
+        return metrics.time("NetworkService.numberOfCommunities", () -> {
+            if (communityIndex == null && communityEngine() == CommunityEngine.DATABASE) return dbComponents().size();
+            return communities().count();
+        });
+    }
 
-        Set<Long> visited = new HashSet<>();
-        List<List<User>> components = new ArrayList<>();
+    /**
+     * Identificatorul comunității din care face parte utilizatorul
+     * (id-ul reprezentantului componentei conexe; cu motorul din BD, cel mai mic id din componentă).
+     */
+    public long communityOf(Long userId) {
+        return metrics.time("NetworkService.communityOf", () -> {
+            long c = communityIndex == null && communityEngine() == CommunityEngine.DATABASE
+                    ? communityRepo.componentOf(userId)
+                    : communities().communityOf(userId);
+            if (c < 0)
+                throw new DomainExceptions.UserNotFoundException("User with id " + userId + " not found");
+            return c;
+        });
+    }
 
-        for (User u : allUsers) {
-            long uid = u.getId();
-            if (!visited.contains(uid)) {
-                components.add(bfsCollectComponent(uid, visited, byId));
+    /**
+     * Indexul union-find al comunităților, construit o singură dată din snapshot
+     * și apoi actualizat incremental de addUser/removeUser/addFriend/removeFriend.
+     */
+    private CommunityIndex communities() {
+        CommunityIndex idx = communityIndex;
+        if (idx != null) return idx;
+        synchronized (this) {
+            idx = communityIndex;
+            if (idx != null) return idx;
+            long version = graphVersion.get();
+            idx = CommunityIndex.of(friendGraph());
+            synchronized (communityLock) {
+                // o modificare din timpul construcției nu a putut fi aplicată indexului: nu îl publicăm,
+                // următorul apel îl reconstruiește
+                if (graphVersion.get() == version) communityIndex = idx;
             }
+            return idx;
         }
+    }
 
-        return components;
+    /**
+     * După o modificare scrisă în stocare: invalidează snapshot-ul și aplică modificarea indexului de
+     * comunități, dacă există. Atomic față de publicarea indexului din {@link #communities()}.
+     */
+    private void graphChanged(Consumer<CommunityIndex> update) {
+        synchronized (communityLock) {
+            invalidateGraph();
+            CommunityIndex idx = communityIndex;
+            if (idx != null) update.accept(idx);
+        }
     }
 
-    private List<User> bfsCollectComponent(Long startId,
-                                           Set<Long> visited,
-                                           Map<Long, User> byId) {
+    /**
+     * Snapshot-ul grafului de prietenii, încărcat o singură dată și refolosit
+     * până la următoarea modificare (locală sau, prin ChangeFeed, de la altă instanță).
+     */
+    private FriendGraph friendGraph() {
+        GraphSnapshot s = graphSnapshot;
+        if (s != null && s.version() == graphVersion.get()) return s.graph();
+        synchronized (this) {
+            s = graphSnapshot;
+            long version = graphVersion.get();
+            if (s != null && s.version() == version) return s.graph();
+            // versiunea este citită înainte de load: o modificare făcută între timp o invalidează
+            FriendGraph g = friendRepo.loadGraph();
+            graphSnapshot = new GraphSnapshot(g, version);
+            return g;
+        }
+    }
 
-        List<User> component = new ArrayList<>();
-        Queue<Long> q = new LinkedList<>();
+    /** Apelat după ce modificarea a fost scrisă în stocare. */
+    private void invalidateGraph() {
+        graphVersion.incrementAndGet();
+        graphSnapshot = null; // doar eliberează memoria; validitatea o dă versiunea
+    }
 
-        visited.add(startId);
-        q.add(startId);
+    /**
+     * După modificări în masă, atât snapshot-ul cât și indexul de comunități se reconstruiesc la cerere.
+     */
+    private void resetGraphState() {
+        synchronized (communityLock) {
+            invalidateGraph();
+            communityIndex = null;
+        }
+    }
 
-        while (!q.isEmpty()) {
-            Long cur = q.poll();
-            User u = byId.get(cur);
-            if (u == null) continue;
+    /**
+     * Componentele calculate în BD (label propagation pe tot graful), refolosite până la următoarea
+     * modificare a grafului. Versiunea este citită înainte de calcul: o modificare făcută între timp îl invalidează.
+     */
+    private List<CommunityRepository.Component> dbComponents() {
+        long version = graphVersion.get();
+        DbComponents c = dbComponents;
+        if (c != null && c.version() == version) return c.sizes();
+        List<CommunityRepository.Component> sizes = new ArrayList<>();
+        communityRepo.components((id, size) -> sizes.add(new CommunityRepository.Component(id, size)));
+        List<CommunityRepository.Component> result = Collections.unmodifiableList(sizes);
+        dbComponents = new DbComponents(result, version);
+        return result;
+    }
 
-            component.add(u);
+    private boolean graphLoaded() {
+        GraphSnapshot s = graphSnapshot;
+        return s != null && s.version() == graphVersion.get();
+    }
 
-            for (Long fid : friendRepo.getFriendIds(cur)) {
-                if (!visited.contains(fid)) {
-                    visited.add(fid);
-                    q.add(fid);
+    /**
+     * Compute connected components of the friendship graph.
+     * Pe grafurile mari componentele se calculează în PostgreSQL (vezi {@link #communityEngine()}),
+     * fără să încarce muchiile în heap. Ambele motoare întorc aceeași ordine ca {@link #communitySizes()}
+     * (de la cea mai mare la cea mai mică, apoi după cel mai mic id), cu membrii ordonați după id;
+     * comunitățile fără niciun utilizator încărcabil sunt omise.
+     */
+    public List<List<User>> getCommunities() {
+        return metrics.time("NetworkService.getCommunities", () -> {
+            List<long[]> groups = new ArrayList<>();
+            if (communityEngine() == CommunityEngine.DATABASE) {
+                List<Long> current = new ArrayList<>();
+                long[] currentId = {Long.MIN_VALUE};
+                communityRepo.members((componentId, userId) -> {
+                    if (componentId != currentId[0] && !current.isEmpty()) {
+                        groups.add(current.stream().mapToLong(Long::longValue).toArray());
+                        current.clear();
+                    }
+                    currentId[0] = componentId;
+                    current.add(userId);
+                });
+                if (!current.isEmpty()) groups.add(current.stream().mapToLong(Long::longValue).toArray());
+            } else {
+                FriendGraph g = friendGraph();
+                for (int[] comp : g.components()) {
+                    long[] ids = new long[comp.length];
+                    for (int i = 0; i < comp.length; i++) ids[i] = g.idOf(comp[i]);
+                    Arrays.sort(ids);
+                    groups.add(ids);
+                }
+            }
+            groups.sort(Comparator.<long[]>comparingInt(ids -> ids.length).reversed()
+                    .thenComparingLong(ids -> ids[0]));
+
+            Map<Long, User> byId = userRepo.findAll().stream()
+                    .collect(Collectors.toMap(User::getId, u -> u));
+            List<List<User>> components = new ArrayList<>(groups.size());
+            for (long[] ids : groups) {
+                List<User> users = new ArrayList<>(ids.length);
+                for (long id : ids) {
+                    User u = byId.get(id);
+                    if (u != null) users.add(u);
                 }
+                if (!users.isEmpty()) components.add(users);
+            }
+            return components;
+        });
+    }
+
+    /**
+     * Id-ul (cel mai mic id de utilizator) și mărimea fiecărei comunități, de la cea mai mare la cea mai mică.
+     * Nu încarcă utilizatorii; cu motorul din BD nu încarcă nici graful, iar componentele sunt refolosite
+     * până la următoarea modificare a grafului.
+     */
+    public List<CommunityRepository.Component> communitySizes() {
+        return metrics.time("NetworkService.communitySizes", () -> {
+            List<CommunityRepository.Component> sizes = new ArrayList<>();
+            if (communityEngine() == CommunityEngine.DATABASE) {
+                sizes.addAll(dbComponents());
+                return sizes;
+            }
+
+            FriendGraph g = friendGraph();
+            for (int[] comp : g.components()) {
+                long min = Long.MAX_VALUE;
+                for (int node : comp) min = Math.min(min, g.idOf(node));
+                sizes.add(new CommunityRepository.Component(min, comp.length));
             }
+            sizes.sort(Comparator.comparingLong(CommunityRepository.Component::size).reversed()
+                    .thenComparingLong(CommunityRepository.Component::id));
+            return sizes;
+        });
+    }
+
+    /**
+     * Motorul folosit pentru componentele conexe. În modul {@code auto}: JVM dacă snapshot-ul grafului este
+     * deja încărcat sau graful e sub {@code communities.dbThresholdFriendships} prietenii (estimare din
+     * statisticile PostgreSQL), altfel BD. Stocarea embedded folosește mereu JVM.
+     */
+    public CommunityEngine communityEngine() {
+        if (communityRepo == null) return CommunityEngine.JVM;
+        switch (communityEngineSetting) {
+            case "jvm": return CommunityEngine.JVM;
+            case "db": return CommunityEngine.DATABASE;
+            case "auto": break;
+            default: throw new IllegalArgumentException("Unknown communities.engine: " + communityEngineSetting);
         }
+        if (graphLoaded()) return CommunityEngine.JVM;
+        return communityRepo.estimatedFriendships() >= dbCommunityThreshold
+                ? CommunityEngine.DATABASE : CommunityEngine.JVM;
+    }
 
-        return component;
+    private List<User> toUsers(FriendGraph g, int[] nodes, Map<Long, User> byId) {
+        List<User> users = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            User u = byId.get(g.idOf(node));
+            if (u != null) users.add(u);
+        }
+        return users;
     }
 
+    /**
+     * Comunitatea cu diametrul maxim. Diametrul exact se calculează cu DiameterEngine (double sweep + iFUB);
+     * componentele care nu pot depăși diametrul curent (size - 1 <= best) nu mai sunt evaluate.
+     */
     public List<User> mostSociableCommunity() {
-        List<List<User>> comps = getCommunities();
+        return metrics.time("NetworkService.mostSociableCommunity", () -> {
+            FriendGraph g = friendGraph();
+            int[] best = new DiameterEngine(g).widestComponent(g.components());
+            if (best.length == 0) return Collections.emptyList();
+
+            List<Long> memberIds = new ArrayList<>(best.length);
+            for (int node : best) memberIds.add(g.idOf(node));
+            Map<Long, User> byId = userRepo.findByIds(memberIds).stream()
+                    .collect(Collectors.toMap(User::getId, u -> u));
+            return toUsers(g, best, byId);
+        });
+    }
 
-        List<User> best = Collections.emptyList();
-        int bestDiam = -1;
+    /**
+     * "Persoane pe care s-ar putea să le cunoști": top k prieteni-ai-prietenilor, după numărul de prieteni comuni.
+     */
+    public List<FriendRecommender.Recommendation> recommendFriends(Long userId, int k) {
+        return recommendFriends(userId, k, FriendRecommender.Scoring.MUTUAL_FRIENDS);
+    }
 
-        for (List<User> comp : comps) {
-            int diam = diameterOfComponent(comp);
-            if (diam > bestDiam) {
-                bestDiam = diam;
-                best = comp;
+    public List<FriendRecommender.Recommendation> recommendFriends(Long userId, int k, FriendRecommender.Scoring scoring) {
+        return metrics.time("NetworkService.recommendFriends", () -> {
+            FriendRecommender r = recommender();
+            int node = r.graph().indexOf(userId);
+            if (node < 0)
+                throw new DomainExceptions.UserNotFoundException("User with id " + userId + " not found");
+            if (k <= 0) return List.<FriendRecommender.Recommendation>of();
+
+            PrecomputedRecommendations pre = precomputed;
+            if (pre != null && pre.graph() == r.graph() && pre.scoring() == scoring && k <= pre.k()) {
+                List<FriendRecommender.Recommendation> list = pre.byNode().get(node);
+                return list.subList(0, Math.min(k, list.size()));
             }
-        }
-
-        return best;
+            return r.recommend(userId, k, scoring);
+        });
     }
 
-    private int diameterOfComponent(List<User> comp) {
-        Set<Long> allowed = comp.stream()
-                .map(User::getId)
-                .collect(Collectors.toSet());
+    /**
+     * Calculează în paralel recomandările pentru toți utilizatorii; sunt folosite de recommendFriends
+     * până la următoarea modificare a grafului.
+     */
+    public void precomputeRecommendations(int k, FriendRecommender.Scoring scoring) {
+        if (k <= 0) throw new IllegalArgumentException("k must be positive");
+        metrics.time("NetworkService.precomputeRecommendations", () -> {
+            FriendRecommender r = recommender();
+            precomputed = new PrecomputedRecommendations(r.graph(), scoring, k, r.recommendAll(k, scoring));
+        });
+    }
 
-        int max = 0;
-        for (User u : comp) {
-            max = Math.max(max, bfsMaxDistance(u.getId(), allowed));
+    private FriendRecommender recommender() {
+        FriendGraph g = friendGraph();
+        FriendRecommender r = recommender;
+        if (r == null || r.graph() != g) {
+            r = new FriendRecommender(g);
+            recommender = r;
         }
-        return max;
+        return r;
     }
 
-    private int bfsMaxDistance(Long startId, Set<Long> allowedIds) {
-        Queue<Long> q = new LinkedList<>();
-        Map<Long, Integer> dist = new HashMap<>();
-
-        q.add(startId);
-        dist.put(startId, 0);
+    /**
+     * Lanțul de prieteni cel mai scurt între doi utilizatori (capetele incluse); lungimea este size() - 1.
+     * Listă vidă dacă nu sunt conectați.
+     */
+    public List<User> shortestPath(Long id1, Long id2) {
+        return shortestPath(id1, id2, PathFinder.UNLIMITED);
+    }
 
-        int max = 0;
+    /**
+     * Ca {@link #shortestPath(Long, Long)}, dar caută doar lanțuri de cel mult maxDepth prietenii.
+     */
+    public List<User> shortestPath(Long id1, Long id2, int maxDepth) {
+        return metrics.time("NetworkService.shortestPath", () -> {
+            PathFinder pf = pathFinder();
+            FriendGraph g = pf.graph();
+            for (Long id : List.of(id1, id2)) {
+                if (g.indexOf(id) < 0)
+                    throw new DomainExceptions.UserNotFoundException("User with id " + id + " not found");
+            }
 
-        while (!q.isEmpty()) {
-            Long cur = q.poll();
-            int d = dist.get(cur);
+            long[] path = pf.shortestPath(id1, id2, maxDepth);
+            List<Long> ids = new ArrayList<>(path.length);
+            for (long id : path) ids.add(id);
 
-            for (Long fid : friendRepo.getFriendIds(cur)) {
-                if (!allowedIds.contains(fid)) continue;
+            Map<Long, User> byId = userRepo.findByIds(ids).stream()
+                    .collect(Collectors.toMap(User::getId, u -> u));
+            List<User> chain = new ArrayList<>(path.length);
+            for (long id : path) chain.add(byId.get(id));
+            return chain;
+        });
+    }
 
-                if (!dist.containsKey(fid)) {
-                    dist.put(fid, d + 1);
-                    max = Math.max(max, d + 1);
-                    q.add(fid);
-                }
-            }
+    private PathFinder pathFinder() {
+        FriendGraph g = friendGraph();
+        PathFinder pf = pathFinder;
+        if (pf == null || pf.graph() != g) {
+            pf = new PathFinder(g);
+            pathFinder = pf;
         }
-
-        return max;
+        return pf;
     }
 
     public Card createCard(String name) {
-        if (name == null || name.isBlank())
-            throw new IllegalArgumentException("Card name required");
-        return cardRepo.save(name.trim());
+        return metrics.time("NetworkService.createCard", () -> {
+            if (name == null || name.isBlank())
+                throw new IllegalArgumentException("Card name required");
+            return cardRepo.save(name.trim());
+        });
     }
 
     public void removeCard(Long cardId) {
-        cardRepo.delete(cardId);
+        metrics.time("NetworkService.removeCard", () -> {
+            cardRepo.delete(cardId);
+        });
     }
 
     public List<Card> listCards() {
-        return cardRepo.findAll();
+        return metrics.time("NetworkService.listCards", () -> {
+            return cardRepo.findAll();
+        });
+    }
+
+    public Stream<Card> streamCards(int pageSize) {
+        return KeysetPager.stream(pageSize, cardRepo::findPage, Card::getId);
     }
 
     public void addDuckToCard(Long duckId, Long cardId) {
-        // Folosim findById pentru verificare
-        User u = userRepo.findById(duckId);
-        if (u == null)
-            throw new DomainExceptions.UserNotFoundException("User with id " + duckId + " not found");
+        metrics.time("NetworkService.addDuckToCard", () -> {
+            // Folosim findById pentru verificare
+            User u = userRepo.findById(duckId);
+            if (u == null)
+                throw new DomainExceptions.UserNotFoundException("User with id " + duckId + " not found");
 
-        if (!(u instanceof Duck))
-            throw new IllegalArgumentException("Only ducks can join cards");
+            if (!(u instanceof Duck))
+                throw new IllegalArgumentException("Only ducks can join cards");
 
-        cardMemberRepo.addDuckToCard(duckId, cardId);
+            cardMemberRepo.addDuckToCard(duckId, cardId);
+        });
     }
 
     public void removeDuckFromCard(Long duckId, Long cardId) {
-        cardMemberRepo.removeDuckFromCard(duckId, cardId);
+        metrics.time("NetworkService.removeDuckFromCard", () -> {
+            cardMemberRepo.removeDuckFromCard(duckId, cardId);
+        });
     }
 
     public List<Duck> getCardMembers(Long cardId) {
-        if (cardRepo.findById(cardId).isEmpty()) {
-            return List.of();
-        }
+        return metrics.time("NetworkService.getCardMembers", () -> {
+            if (cardRepo.findById(cardId).isEmpty()) {
+                return List.of();
+            }
 
-        List<Long> duckIds = cardMemberRepo.findDucksInCard(cardId);
+            List<Long> duckIds = cardMemberRepo.findDucksInCard(cardId);
 
-        return duckIds.stream()
-                .map(duckRepo::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+            // findByIds întoarce ordinea după id: păstrăm ordinea membrilor din card
+            return inOrder(duckIds, userRepo.findByIds(duckIds)).stream()
+                    .filter(u -> u instanceof Duck)
+                    .map(u -> (Duck) u)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /** Utilizatorii în ordinea listei de id-uri; id-urile negăsite sunt omise. */
+    private static List<User> inOrder(List<Long> ids, List<User> users) {
+        Map<Long, User> byId = new HashMap<>(users.size() * 2);
+        for (User u : users) byId.put(u.getId(), u);
+        List<User> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User u = byId.get(id);
+            if (u != null) ordered.add(u);
+        }
+        return ordered;
     }
 
 
     public Event createEvent(String name) {
-        return eventRepo.save(name);
+        return metrics.time("NetworkService.createEvent", () -> {
+            return eventRepo.save(name);
+        });
     }
 
     public RaceEvent createRaceEvent(String name, List<Double> buoys) {
-        return eventRepo.saveRaceEvent(name, buoys);
+        return metrics.time("NetworkService.createRaceEvent", () -> {
+            return eventRepo.saveRaceEvent(name, buoys);
+        });
     }
 
     /**
      * Listează toate evenimentele prin EventRepository.
      */
     public List<Event> listEvents() {
-        return eventRepo.findAll();
+        return metrics.time("NetworkService.listEvents", () -> {
+            return eventRepo.findAll();
+        });
+    }
+
+    public Stream<Event> streamEvents(int pageSize) {
+        return KeysetPager.stream(pageSize, eventRepo::findPage, Event::getId);
     }
 
 
     public void subscribeToEvent(Long eventId, Long userId) {
-        eventSubscriberRepo.subscribe(eventId, userId);
+        metrics.time("NetworkService.subscribeToEvent", () -> {
+            eventSubscriberRepo.subscribe(eventId, userId);
+        });
     }
 
     public void unsubscribeFromEvent(Long eventId, Long userId) {
-        eventSubscriberRepo.unsubscribe(eventId, userId);
+        metrics.time("NetworkService.unsubscribeFromEvent", () -> {
+            eventSubscriberRepo.unsubscribe(eventId, userId);
+        });
+    }
+
+    /**
+     * Abonații unui eveniment, încărcați cu o singură interogare după lista de id-uri.
+     */
+    public List<User> getEventSubscribers(Long eventId) {
+        return metrics.time("NetworkService.getEventSubscribers", () -> {
+            List<Long> ids = eventSubscriberRepo.findSubscribers(eventId);
+            return inOrder(ids, userRepo.findByIds(ids));
+        });
     }
 
     public Map<Duck, Double> runRace(Long eventId, int M) {
+        return metrics.time("NetworkService.runRace", () -> {
+            RaceEvent re = loadRace(eventId);
+
+            // selectia top-M se face in SQL (index pe duck_details), nu pe toata populatia de rate
+            re.setParticipants(duckRepo.findTopSwimmers(M));
+            Map<Duck, Double> times = re.simulateRace();
+            raceResultRepo.saveResults(eventId, times);
+            return times;
+        });
+    }
+
+    /**
+     * Rulează mai multe curse concurent (câte un virtual thread per cursă când runtime-ul permite).
+     * Accesul la baza de date este limitat la {@code race.dbParallelism} operații simultane;
+     * selecția top-M se face o singură dată pentru tot lotul.
+     */
+    public RaceBatch runRaces(List<Long> eventIds, int M) {
+        RaceBatch batch = new RaceBatch();
+
+        CompletableFuture<List<Duck>> swimmers = CompletableFuture.supplyAsync(
+                () -> withDbPermit(() -> duckRepo.findTopSwimmers(M)), raceExecutor);
+
+        for (Long eventId : eventIds) {
+            CompletableFuture<Map<Duck, Double>> result = swimmers.thenApplyAsync(pool -> {
+                long start = System.nanoTime();
+                try {
+                    return metrics.time("NetworkService.runRaces.race", () -> {
+                        RaceEvent re = withDbPermit(() -> loadRace(eventId));
+                        re.setParticipants(pool);
+                        Map<Duck, Double> times = re.simulateRace(false);
+                        withDbPermit(() -> {
+                            raceResultRepo.saveResults(eventId, times);
+                            return null;
+                        });
+                        return times;
+                    });
+                } finally {
+                    batch.recordWallTime(eventId, System.nanoTime() - start);
+                }
+            }, raceExecutor);
+            batch.add(eventId, result);
+        }
+        return batch;
+    }
+
+    /**
+     * Cel mai bun timp al unei rațe și locul ei în clasamentul general (gol dacă nu a concurat).
+     */
+    public Optional<RaceResultRepository.LeaderboardEntry> bestTimeOf(Long duckId) {
+        return metrics.time("NetworkService.bestTimeOf", () -> {
+            if (!userRepo.existsById(duckId))
+                throw new DomainExceptions.UserNotFoundException("User with id " + duckId + " not found");
+            return raceResultRepo.findBestTime(duckId);
+        });
+    }
+
+    /**
+     * Primele n rațe ale unei curse, după cel mai bun timp obținut în ea.
+     */
+    public List<RaceResultRepository.LeaderboardEntry> eventLeaderboard(Long eventId, int n) {
+        return metrics.time("NetworkService.eventLeaderboard", () -> {
+            return raceResultRepo.findTopForEvent(eventId, n);
+        });
+    }
+
+    /**
+     * Clasamentul general: primele n rațe după cel mai bun timp din toate cursele.
+     */
+    public List<RaceResultRepository.LeaderboardEntry> allTimeLeaderboard(int n) {
+        return metrics.time("NetworkService.allTimeLeaderboard", () -> {
+            return raceResultRepo.findAllTimeRanking(n);
+        });
+    }
+
+    private BulkImportRepository bulkImporter() {
+        if (bulkImportRepo == null)
+            throw new UnsupportedOperationException("Bulk import requires the PostgreSQL storage (storage=postgres)");
+        return bulkImportRepo;
+    }
+
+    private RaceEvent loadRace(Long eventId) {
         Event e = eventRepo.findById(eventId).orElse(null);
 
         if (e == null)
@@ -250,8 +817,21 @@ public class NetworkService {
         if (!(e instanceof RaceEvent re))
             throw new RuntimeException("Not a race event!");
 
-        List<Duck> pool = duckRepo.findAll();
-        re.autoSelectParticipants(pool, M);
-        return re.simulateRace();
+        re.setNotifier(notifications);
+        return re;
+    }
+
+    private <T> T withDbPermit(Supplier<T> action) {
+        try {
+            dbPermits.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for database access", ie);
+        }
+        try {
+            return action.get();
+        } finally {
+            dbPermits.release();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package ducknetwork.service;
+
+import ducknetwork.domain.Event;
+import ducknetwork.domain.EventNotifier;
+import ducknetwork.domain.User;
+import ducknetwork.repository.EventSubscriberRepository;
+import ducknetwork.util.AppConfig;
+import ducknetwork.util.ThreadPools;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous notification pipeline for events.
+ * {@link #publish} only enqueues a task: a producer thread streams the subscriber ids of the event
+ * from {@code event_subscribers} in keyset chunks of {@code notify.chunkSize} and puts them into a bounded
+ * queue ({@code notify.queueCapacity} batches). When the queue is full the producer blocks, so a slow sink
+ * throttles the database reads instead of piling up memory. {@code notify.workers} threads drain the
+ * queue and hand each batch to every registered {@link NotificationSink}.
+ */
+public final class NotificationDispatcher implements EventNotifier {
+
+    /**
+     * Receives one batch of recipients for a message.
+     */
+    public interface NotificationSink {
+        void deliver(long eventId, String message, long[] userIds);
+    }
+
+    /**
+     * Default sink: one console write per batch.
+     */
+    public static final class ConsoleSink implements NotificationSink {
+        @Override
+        public void deliver(long eventId, String message, long[] userIds) {
+            StringBuilder sb = new StringBuilder(userIds.length * (message.length() + 24));
+            for (long id : userIds) {
+                sb.append("Notify user ").append(id).append(" : ").append(message).append('\n');
+            }
+            System.out.print(sb);
+        }
+    }
+
+    /**
+     * Snapshot of the dispatcher counters. Throughput is measured from the first publish to the last delivery.
+     */
+    public record Stats(long published, long delivered, long batches, long failed,
+                        int queueDepth, int queueCapacity, double deliveriesPerSecond) {
+        @Override
+        public String toString() {
+            return String.format("published=%d, delivered=%d, batches=%d, failed=%d, queue=%d/%d, throughput=%.0f/s",
+                    published, delivered, batches, failed, queueDepth, queueCapacity, deliveriesPerSecond);
+        }
+    }
+
+    private record Batch(long eventId, String message, long[] userIds) {}
+
+    private static final long POLL_MILLIS = 100;
+
+    private final EventSubscriberRepository subscriberRepo;
+    private final List<NotificationSink> sinks = new CopyOnWriteArrayList<>();
+    private final int chunkSize;
+    private final int queueCapacity;
+    private final BlockingQueue<Batch> queue;
+    private final ExecutorService producer;
+    private final ExecutorService workers;
+    private volatile boolean accepting = true;
+    private volatile boolean producing = true;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong firstPublishNanos = new AtomicLong();
+    private volatile long lastDeliveryNanos;
+
+    public NotificationDispatcher(EventSubscriberRepository subscriberRepo) {
+        this.subscriberRepo = subscriberRepo;
+        this.chunkSize = Math.max(1, AppConfig.getInt("notify.chunkSize", 1000));
+        this.queueCapacity = Math.max(1, AppConfig.getInt("notify.queueCapacity", 64));
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        int workerCount = Math.max(1, AppConfig.getInt("notify.workers", 2));
+        this.producer = ThreadPools.newDaemonPool("notify-producer", 1);
+        this.workers = ThreadPools.newDaemonPool("notify-worker", workerCount);
+        for (int i = 0; i < workerCount; i++) workers.execute(this::drain);
+
+        sinks.add(new ConsoleSink());
+    }
+
+    public void addSink(NotificationSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Schedules the notification and returns immediately. Persisted events are fanned out to the subscribers
+     * stored in the database; events without an id fall back to their in-memory subscribers.
+     */
+    @Override
+    public void publish(Event event, String message) {
+        if (!accepting) throw new IllegalStateException("Notification dispatcher is shut down");
+        published.increment();
+        firstPublishNanos.compareAndSet(0, System.nanoTime());
+
+        if (event.getId() == null) {
+            long[] ids = event.getSubscribers().stream()
+                    .map(User::getId)
+                    .filter(id -> id != null)
+                    .mapToLong(Long::longValue)
+                    .toArray();
+            producer.execute(() -> enqueue(new Batch(-1, message, ids)));
+            return;
+        }
+
+        long eventId = event.getId();
+        producer.execute(() -> streamSubscribers(eventId, message));
+    }
+
+    public Stats stats() {
+        long first = firstPublishNanos.get();
+        long last = lastDeliveryNanos;
+        long done = delivered.sum();
+        double perSecond = first == 0 || last <= first ? 0.0 : done * 1e9 / (last - first);
+        return new Stats(published.sum(), done, batches.sum(), failed.sum(), queue.size(), queueCapacity, perSecond);
+    }
+
+    /**
+     * Stops accepting notifications and waits (bounded) for the queued ones to be delivered.
+     */
+    public void shutdown() {
+        accepting = false;
+        producer.shutdown();
+        try {
+            producer.awaitTermination(10, TimeUnit.SECONDS);
+            producing = false;
+            workers.shutdown();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void streamSubscribers(long eventId, String message) {
+        try {
+            long after = Long.MIN_VALUE;
+            while (true) {
+                long[] chunk = subscriberRepo.findSubscribersPage(eventId, after, chunkSize);
+                if (chunk.length == 0) return;
+                if (!enqueue(new Batch(eventId, message, chunk))) return;
+                if (chunk.length < chunkSize) return;
+                after = chunk[chunk.length - 1];
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Notificare eșuată pentru evenimentul " + eventId + ": " + e.getMessage());
+        }
+    }
+
+    /** Blocks while the queue is full; false if interrupted. */
+    private boolean enqueue(Batch batch) {
+        if (batch.userIds().length == 0) return true;
+        try {
+            queue.put(batch);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drain() {
+        try {
+            while (producing || !queue.isEmpty()) {
+                Batch batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (batch != null) deliver(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(Batch batch) {
+        int n = batch.userIds().length;
+        for (NotificationSink sink : sinks) {
+            try {
+                sink.deliver(batch.eventId(), batch.message(), batch.userIds());
+                delivered.add(n);
+            } catch (RuntimeException e) {
+                failed.add(n);
+                System.err.println("Livrare eșuată (" + sink.getClass().getSimpleName() + "): " + e.getMessage());
+            }
+        }
+        batches.increment();
+        lastDeliveryNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,75 @@
+package ducknetwork.service;
+
+import ducknetwork.domain.Duck;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Handle for a set of races started together by {@link NetworkService#runRaces}.
+ * Holds one future per race (in the order the ids were given) and the wall time of each race.
+ */
+public final class RaceBatch {
+
+    private final Map<Long, CompletableFuture<Map<Duck, Double>>> results = new LinkedHashMap<>();
+    private final Map<Long, Long> wallNanos = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    void add(Long eventId, CompletableFuture<Map<Duck, Double>> future) {
+        results.put(eventId, future);
+    }
+
+    void recordWallTime(Long eventId, long nanos) {
+        wallNanos.put(eventId, nanos);
+    }
+
+    /** Race results per event id (insertion order = requested order). */
+    public Map<Long, CompletableFuture<Map<Duck, Double>>> results() {
+        return Collections.unmodifiableMap(results);
+    }
+
+    /** Completes when every race has finished, successfully or not. */
+    public CompletableFuture<Void> allDone() {
+        CompletableFuture<?>[] all = results.values().stream()
+                .map(f -> f.handle((r, e) -> null))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(all).thenRun(() -> endNanos = System.nanoTime());
+    }
+
+    /** Wall time of one race in nanoseconds, or -1 if it has not finished. */
+    public long wallTimeNanos(Long eventId) {
+        return wallNanos.getOrDefault(eventId, -1L);
+    }
+
+    /**
+     * One-line summary: finished (including failed) / failed counts and per-race wall time (min, p50, p99, max), plus total time.
+     */
+    public String summary() {
+        long[] t = wallNanos.values().stream().mapToLong(Long::longValue).sorted().toArray();
+        long failed = results.values().stream().filter(CompletableFuture::isCompletedExceptionally).count();
+        // wall times are recorded for failed races too
+        long total = (endNanos == 0 ? System.nanoTime() : endNanos) - startNanos;
+        if (t.length == 0) {
+            return String.format("races=%d, finished=0, failed=%d, total=%.1f ms", results.size(), failed, total / 1e6);
+        }
+        return String.format("races=%d, finished=%d, failed=%d, per-race ms: min=%.2f p50=%.2f p99=%.2f max=%.2f, total=%.1f ms",
+                results.size(), t.length, failed,
+                t[0] / 1e6, percentile(t, 0.50) / 1e6, percentile(t, 0.99) / 1e6, t[t.length - 1] / 1e6,
+                total / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        int i = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))];
+    }
+
+    @Override
+    public String toString() {
+        return "RaceBatch{" + Arrays.toString(results.keySet().toArray()) + "}";
+    }
+}
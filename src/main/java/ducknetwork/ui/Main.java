@@ -2,38 +2,79 @@ package ducknetwork.ui;
 
 import ducknetwork.domain.*;
 // Am eliminat importul pentru ducknetwork.repository.Repo
+import ducknetwork.graph.FriendRecommender;
+import ducknetwork.metrics.Metrics;
+import ducknetwork.repository.ChangeFeed;
+import ducknetwork.repository.CommunityRepository;
+import ducknetwork.repository.RaceResultRepository;
+import ducknetwork.repository.Repositories;
 import ducknetwork.service.NetworkService;
+import ducknetwork.service.RaceBatch;
 import ducknetwork.persistence.Database; // Folosim noul Database Singleton
+import ducknetwork.persistence.MigrationRunner;
 import ducknetwork.exceptions.DomainExceptions;
+import ducknetwork.util.AppConfig;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletionException;
 import java.util.Optional;
 
 public class Main {
 
     private static final NetworkService service = new NetworkService();
     private static final Scanner sc = new Scanner(System.in);
+    private static final int PAGE_SIZE = 500;
 
     public static void main(String[] args) {
 
-        try {
-            Database.getInstance().getConnection();
-            System.out.println("Conexiunea la BD functioneaza");
-        } catch (RuntimeException | SQLException e) {
-            System.err.println("Eroare la conectarea la baza de date: " + e.getMessage());
-            e.printStackTrace();
-            return;
+        boolean usesDatabase = service.storage() == Repositories.Storage.POSTGRES;
+        if (usesDatabase) {
+            try (Connection ignored = Database.getInstance().getConnection()) {
+                System.out.println("Conexiunea la BD functioneaza");
+            } catch (RuntimeException | SQLException e) {
+                System.err.println("Eroare la conectarea la baza de date: " + e.getMessage());
+                e.printStackTrace();
+                return;
+            }
+
+            try {
+                int applied = new MigrationRunner().run();
+                if (applied == 0) System.out.println("Schema BD este la zi");
+            } catch (RuntimeException e) {
+                System.err.println("Eroare la migrarea schemei BD: " + e.getMessage());
+                e.printStackTrace();
+                return;
+            }
+
+            // invalidarea cache-urilor când alte instanțe modifică aceeași BD
+            ChangeFeed.getInstance().start();
+        } else {
+            if (AppConfig.get("memory.dataDir", "").isBlank())
+                System.out.println("Stocare embedded in memorie (storage=memory): datele nu sunt persistate.");
         }
 
+        Metrics.getInstance().startPeriodicDump();
+
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            System.out.println("\nOprire aplicație: Inchidere conexiune DB...");
+            service.shutdown();
+            Metrics.getInstance().stopPeriodicDump();
+            if (!usesDatabase) return;
+            ChangeFeed.getInstance().stop();
+            System.out.println("\nOprire aplicație: Inchidere pool conexiuni DB...");
             Database.getInstance().closeConnection();
-            System.out.println("Conexiune DB inchisa.");
+            System.out.println("Pool DB inchis.");
         }));
 
         printHelp();
@@ -53,18 +94,33 @@ public class Main {
                     case "removeuser": removeUser(); break;
                     case "addfriend": addFriend(); break;
                     case "removefriend": removeFriend(); break;
+                    case "addfriends": addFriends(); break;
                     case "list": listUsers(); break;
+                    case "listpage": listUsersPaged(); break;
+                    case "communities": showCommunities(); break;
                     case "mostsociable": showMostSociable(); break;
+                    case "recommend": recommendFriends(); break;
+                    case "path": showPath(); break;
                     case "createcard": createCard(); break;
                     case "listcards": listCards(); break;
+                    case "listcardspage": listCardsPaged(); break;
                     case "addducktocard": addDuckToCard(); break;
                     case "removecard": removeCard(); break;
                     case "createevent": createEvent(); break;
                     case "createrace": createRaceEvent(); break;
                     case "listevents": listEvents(); break;
+                    case "listeventspage": listEventsPaged(); break;
                     case "subscribeevent": subscribeEvent(); break;
                     case "unsubscribeevent": unsubscribeEvent(); break;
                     case "runrace": runRace(); break;
+                    case "runraces": runRaces(); break;
+                    case "leaderboard": showLeaderboard(); break;
+                    case "importusers": importUsers(); break;
+                    case "cachestats": System.out.println("User cache: " + service.userCacheStats()); break;
+                    case "notifystats": System.out.println("Notifications: " + service.notificationStats()); break;
+                    case "syncstats": System.out.println("Change feed: " + service.changeFeedStats()); break;
+                    case "stats": System.out.print(service.metricsReport(true)); break;
+                    case "importfriends": importFriends(); break;
                     case "exit": System.out.println("bye"); return;
                     default: System.out.println("Unknown command. Type 'help'"); break;
                 }
@@ -81,18 +137,33 @@ public class Main {
         System.out.println(" removeuser");
         System.out.println(" addfriend");
         System.out.println(" removefriend");
+        System.out.println(" addfriends");
         System.out.println(" list");
+        System.out.println(" listpage");
+        System.out.println(" communities");
         System.out.println(" mostsociable");
+        System.out.println(" recommend");
+        System.out.println(" path");
         System.out.println(" createcard");
         System.out.println(" listcards");
+        System.out.println(" listcardspage");
         System.out.println(" addducktocard");
         System.out.println(" removecard");
         System.out.println(" createevent");
         System.out.println(" createrace");
         System.out.println(" listevents");
+        System.out.println(" listeventspage");
         System.out.println(" subscribeevent");
         System.out.println(" unsubscribeevent");
         System.out.println(" runrace");
+        System.out.println(" runraces");
+        System.out.println(" leaderboard");
+        System.out.println(" importusers");
+        System.out.println(" cachestats");
+        System.out.println(" notifystats");
+        System.out.println(" syncstats");
+        System.out.println(" stats");
+        System.out.println(" importfriends");
         System.out.println(" exit");
         System.out.println("==============\n");
     }
@@ -156,14 +227,42 @@ public class Main {
         System.out.println("Friendship removed.");
     }
 
+    /**
+     * Citeste perechi "id1,id2" (sau separate prin spatii), cate una pe linie, si le adauga intr-un singur lot.
+     */
+    private static void addFriends() throws IOException {
+        System.out.print("file (one pair per line): "); String file = sc.nextLine().trim();
+
+        List<long[]> pairs = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(Path.of(file))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split("[,;\\s]+");
+                pairs.add(new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])});
+            }
+        }
+
+        service.addFriends(pairs);
+        System.out.println(pairs.size() + " friendships added.");
+    }
+
     private static void listUsers() {
-        List<User> all = service.listAllUsers();
-        if (all.isEmpty()) System.out.println("(no users)");
-        else all.forEach(System.out::println);
+        printAll(service.streamUsers(PAGE_SIZE).iterator(), "(no users)");
+    }
+
+    private static void listUsersPaged() {
+        int pageSize = readPageSize();
+        printPaged(service.streamUsers(pageSize).iterator(), pageSize, "(no users)");
     }
 
     private static void showCommunities() {
-        System.out.println("Number of communities: " + service.numberOfCommunities());
+        List<CommunityRepository.Component> sizes = service.communitySizes();
+        System.out.println("Number of communities: " + sizes.size() + " (" + service.communityEngine() + ")");
+        for (CommunityRepository.Component c : sizes.subList(0, Math.min(10, sizes.size()))) {
+            System.out.println(" #" + c.id() + ": " + c.size() + " users");
+        }
     }
 
     private static void showMostSociable() {
@@ -172,6 +271,35 @@ public class Main {
         best.forEach(System.out::println);
     }
 
+    private static void recommendFriends() {
+        System.out.print("userId: "); Long id = Long.parseLong(sc.nextLine().trim());
+        System.out.print("k: "); int k = Integer.parseInt(sc.nextLine().trim());
+
+        List<FriendRecommender.Recommendation> recs = service.recommendFriends(id, k);
+        if (recs.isEmpty()) {
+            System.out.println("(no recommendations)");
+            return;
+        }
+        for (FriendRecommender.Recommendation r : recs) {
+            System.out.printf("%s -> %d mutual friends (adamic-adar %.3f)%n",
+                    service.findById(r.userId()).getUsername(), r.mutualFriends(), r.adamicAdar());
+        }
+    }
+
+    private static void showPath() {
+        System.out.print("id1: "); Long a = Long.parseLong(sc.nextLine().trim());
+        System.out.print("id2: "); Long b = Long.parseLong(sc.nextLine().trim());
+        System.out.print("max depth (empty = unlimited): "); String md = sc.nextLine().trim();
+
+        List<User> chain = md.isEmpty() ? service.shortestPath(a, b) : service.shortestPath(a, b, Integer.parseInt(md));
+        if (chain.isEmpty()) {
+            System.out.println("No friend chain found.");
+            return;
+        }
+        System.out.println("Degrees of separation: " + (chain.size() - 1));
+        chain.forEach(u -> System.out.println("  " + u.getUsername() + " (id " + u.getId() + ")"));
+    }
+
     private static void createCard() {
         System.out.print("Card name: ");
         String name = sc.nextLine().trim();
@@ -180,9 +308,12 @@ public class Main {
     }
 
     private static void listCards() {
-        List<Card> cards = service.listCards();
-        if (cards.isEmpty()) System.out.println("(no cards)");
-        else cards.forEach(System.out::println);
+        printAll(service.streamCards(PAGE_SIZE).iterator(), "(no cards)");
+    }
+
+    private static void listCardsPaged() {
+        int pageSize = readPageSize();
+        printPaged(service.streamCards(pageSize).iterator(), pageSize, "(no cards)");
     }
 
     private static void addDuckToCard() {
@@ -225,9 +356,47 @@ public class Main {
     }
 
     private static void listEvents() {
-        List<Event> evs = service.listEvents();
-        if (evs.isEmpty()) System.out.println("(no events)");
-        else evs.forEach(System.out::println);
+        printAll(service.streamEvents(PAGE_SIZE).iterator(), "(no events)");
+    }
+
+    private static void listEventsPaged() {
+        int pageSize = readPageSize();
+        printPaged(service.streamEvents(pageSize).iterator(), pageSize, "(no events)");
+    }
+
+    private static int readPageSize() {
+        System.out.print("page size: ");
+        String s = sc.nextLine().trim();
+        return s.isEmpty() ? PAGE_SIZE : Integer.parseInt(s);
+    }
+
+    /**
+     * Afiseaza tot, dar citeste din baza de date pagina cu pagina (memorie constanta).
+     */
+    private static void printAll(Iterator<?> it, String emptyMessage) {
+        if (!it.hasNext()) {
+            System.out.println(emptyMessage);
+            return;
+        }
+        while (it.hasNext()) System.out.println(it.next());
+    }
+
+    /**
+     * Afiseaza cate o pagina si asteapta Enter pentru urmatoarea ('q' opreste listarea).
+     */
+    private static void printPaged(Iterator<?> it, int pageSize, String emptyMessage) {
+        if (!it.hasNext()) {
+            System.out.println(emptyMessage);
+            return;
+        }
+        int page = 1;
+        while (true) {
+            System.out.println("-- page " + page++ + " --");
+            for (int i = 0; i < pageSize && it.hasNext(); i++) System.out.println(it.next());
+            if (!it.hasNext()) break;
+            System.out.print("[Enter] next page, q = stop: ");
+            if (sc.nextLine().trim().equalsIgnoreCase("q")) break;
+        }
     }
 
     private static void subscribeEvent() {
@@ -255,4 +424,78 @@ public class Main {
                 System.out.printf("%s -> %.3f s%n", d.getUsername(), t)
         );
     }
-}
\ No newline at end of file
+
+    private static void showLeaderboard() {
+        System.out.print("scope (event/duck/all): "); String scope = sc.nextLine().trim().toLowerCase();
+
+        List<RaceResultRepository.LeaderboardEntry> entries;
+        switch (scope) {
+            case "event": {
+                System.out.print("eventId: "); Long eid = Long.parseLong(sc.nextLine().trim());
+                System.out.print("top N: "); int n = Integer.parseInt(sc.nextLine().trim());
+                entries = service.eventLeaderboard(eid, n);
+                break;
+            }
+            case "duck": {
+                System.out.print("duckId: "); Long did = Long.parseLong(sc.nextLine().trim());
+                entries = service.bestTimeOf(did).map(List::of).orElse(List.of());
+                break;
+            }
+            case "all": {
+                System.out.print("top N: "); int n = Integer.parseInt(sc.nextLine().trim());
+                entries = service.allTimeLeaderboard(n);
+                break;
+            }
+            default:
+                System.out.println("Unknown scope: " + scope);
+                return;
+        }
+
+        if (entries.isEmpty()) {
+            System.out.println("(no results)");
+            return;
+        }
+        for (RaceResultRepository.LeaderboardEntry e : entries) {
+            System.out.printf("#%d %s (id %d) -> best %.3f s over %d race(s)%n",
+                    e.rank(), e.username(), e.duckId(), e.bestTime(), e.races());
+        }
+    }
+
+    private static void runRaces() {
+        System.out.print("eventIds (comma-separated): "); String ids = sc.nextLine().trim();
+        System.out.print("M (lanes): "); int M = Integer.parseInt(sc.nextLine().trim());
+
+        List<Long> eventIds = Arrays.stream(ids.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Long::parseLong)
+                .toList();
+
+        RaceBatch batch = service.runRaces(eventIds, M);
+        batch.allDone().join();
+
+        batch.results().forEach((eid, f) -> {
+            Map<Duck, Double> results;
+            try {
+                results = f.join();
+            } catch (CompletionException ex) {
+                System.out.println("Race " + eid + ": failed (" + ex.getCause().getMessage() + ")");
+                return;
+            }
+            double total = results.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
+            System.out.printf("Race %d: %d ducks, finished in %.3f s (%.2f ms wall)%n",
+                    eid, results.size(), total, batch.wallTimeNanos(eid) / 1e6);
+        });
+        System.out.println(batch.summary());
+    }
+
+    private static void importUsers() {
+        System.out.print("file (.csv / .ndjson): "); String file = sc.nextLine().trim();
+        System.out.println("Import finished: " + service.importUsers(Path.of(file)));
+    }
+
+    private static void importFriends() {
+        System.out.print("file (.csv / .ndjson, user1,user2): "); String file = sc.nextLine().trim();
+        System.out.println("Import finished: " + service.importFriendships(Path.of(file)));
+    }
+}
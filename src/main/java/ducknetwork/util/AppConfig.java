@@ -0,0 +1,45 @@
+package ducknetwork.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Read-only access to the settings in config.properties (loaded once from the classpath).
+ */
+public final class AppConfig {
+    private AppConfig() {}
+
+    private static final String CONFIG_FILE = "config.properties";
+    private static final Properties PROPS = load();
+
+    private static Properties load() {
+        Properties props = new Properties();
+        try (InputStream in = AppConfig.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read " + CONFIG_FILE + ": " + e.getMessage(), e);
+        }
+        return props;
+    }
+
+    /**
+     * Returns the value for key, or def if it is missing or blank.
+     */
+    public static String get(String key, String def) {
+        String v = System.getProperty(key, PROPS.getProperty(key));
+        return (v == null || v.isBlank()) ? def : v.trim();
+    }
+
+    public static int getInt(String key, int def) {
+        String v = get(key, null);
+        return v == null ? def : Integer.parseInt(v);
+    }
+
+    public static long getLong(String key, long def) {
+        String v = get(key, null);
+        return v == null ? def : Long.parseLong(v);
+    }
+}
@@ -0,0 +1,43 @@
+package ducknetwork.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for the executors used by the service layer.
+ */
+public final class ThreadPools {
+    private ThreadPools() {}
+
+    /**
+     * One virtual thread per task when the runtime supports it (Java 21+);
+     * otherwise a fixed pool of daemon platform threads of the given size.
+     */
+    public static ExecutorService newPerTaskExecutor(String name, int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return newDaemonPool(name, fallbackThreads);
+        }
+    }
+
+    /**
+     * Fixed pool of daemon platform threads named name-1, name-2, ...
+     */
+    public static ExecutorService newDaemonPool(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, daemonFactory(name));
+    }
+
+    private static ThreadFactory daemonFactory(String name) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+-- Schema de bază folosită de repository-urile JDBC.
+-- IF NOT EXISTS: o bază creată manual înainte de migrări este adoptată fără modificări.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGSERIAL PRIMARY KEY,
+    username VARCHAR(100) NOT NULL UNIQUE,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    type     VARCHAR(10)  NOT NULL CHECK (type IN ('PERSON', 'DUCK'))
+);
+
+CREATE TABLE IF NOT EXISTS person_details (
+    user_id    BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    first_name VARCHAR(100),
+    last_name  VARCHAR(100),
+    birth_date DATE,
+    occupation VARCHAR(100),
+    empathy    INT
+);
+
+CREATE TABLE IF NOT EXISTS duck_details (
+    user_id   BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    type      VARCHAR(30) NOT NULL CHECK (type IN ('SWIMMING', 'FLYING', 'FLYING_AND_SWIMMING')),
+    speed     DOUBLE PRECISION NOT NULL,
+    endurance DOUBLE PRECISION NOT NULL
+);
+
+-- o prietenie este stocată o singură dată, cu user_id < friend_id
+CREATE TABLE IF NOT EXISTS friends (
+    user_id   BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    friend_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    PRIMARY KEY (user_id, friend_id),
+    CHECK (user_id < friend_id)
+);
+
+CREATE TABLE IF NOT EXISTS cards (
+    id   BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS duck_card_memberships (
+    duck_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    card_id BIGINT NOT NULL REFERENCES cards(id) ON DELETE CASCADE,
+    PRIMARY KEY (duck_id, card_id)
+);
+
+CREATE TABLE IF NOT EXISTS events (
+    id   BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(10)  NOT NULL CHECK (type IN ('EVENT', 'RACE'))
+);
+
+CREATE TABLE IF NOT EXISTS race_buoys (
+    race_event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE,
+    distance      DOUBLE PRECISION NOT NULL,
+    position      INT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS event_subscribers (
+    event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE,
+    user_id  BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    PRIMARY KEY (event_id, user_id)
+);
@@ -0,0 +1,16 @@
+-- JdbcRaceResultRepository: rezultatele fiecărei curse
+CREATE TABLE IF NOT EXISTS race_results (
+    id            BIGSERIAL PRIMARY KEY,
+    race_event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE,
+    duck_id       BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    lane          INT NOT NULL,
+    time_seconds  DOUBLE PRECISION NOT NULL,
+    finished_at   TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- cel mai bun timp per rață, întreținut la fiecare salvare de rezultate
+CREATE TABLE IF NOT EXISTS duck_best_times (
+    duck_id   BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    best_time DOUBLE PRECISION NOT NULL,
+    races     BIGINT NOT NULL
+);
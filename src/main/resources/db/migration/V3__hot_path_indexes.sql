@@ -0,0 +1,35 @@
+-- Indexurile interogărilor din repository-uri. Cheile primare acoperă deja căutările după
+-- users.id, cards.id, events.id, (user_id, friend_id), (duck_id, card_id) și (event_id, user_id).
+
+-- JdbcFriendRepository.getFriendIds: a doua ramură a UNION ALL (friend_id = ?), index-only scan;
+-- servește și ștergerea în cascadă după friend_id
+CREATE INDEX IF NOT EXISTS idx_friends_friend_user
+    ON friends (friend_id, user_id);
+
+-- JdbcDuckRepository.findTopSwimmers: top-M per tip, ordonat după endurance/speed
+CREATE INDEX IF NOT EXISTS idx_duck_details_type_endurance_speed
+    ON duck_details (type, endurance DESC, speed DESC);
+
+-- evenimentele unui utilizator + ștergerea în cascadă a utilizatorului
+CREATE INDEX IF NOT EXISTS idx_event_subscribers_user
+    ON event_subscribers (user_id);
+
+-- JdbcEventRepository / RaceBuoyRepository: balizele unei curse, în ordinea pozițiilor
+CREATE INDEX IF NOT EXISTS idx_race_buoys_event_position
+    ON race_buoys (race_event_id, position);
+
+-- JdbcCardMemberRepository: membrii unui card (WHERE card_id = ?) + ștergerea în cascadă a cardului
+CREATE INDEX IF NOT EXISTS idx_duck_card_memberships_card_duck
+    ON duck_card_memberships (card_id, duck_id);
+
+-- top-N per eveniment: agregare per rață doar peste rândurile evenimentului (index-only scan)
+CREATE INDEX IF NOT EXISTS idx_race_results_event_duck_time
+    ON race_results (race_event_id, duck_id, time_seconds);
+
+-- istoricul unei rațe + ștergerea în cascadă a utilizatorului
+CREATE INDEX IF NOT EXISTS idx_race_results_duck_time
+    ON race_results (duck_id, time_seconds);
+
+-- clasamentul general: ORDER BY best_time, duck_id LIMIT n
+CREATE INDEX IF NOT EXISTS idx_duck_best_times_rank
+    ON duck_best_times (best_time, duck_id);
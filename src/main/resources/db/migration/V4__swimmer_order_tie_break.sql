@@ -0,0 +1,7 @@
+-- JdbcDuckRepository.findTopSwimmers ordonează după endurance DESC, speed DESC, user_id: la egalitate
+-- la limita M selecția e deterministă (ca în InMemoryDuckRepository); indexul include și user_id,
+-- ca să servească în continuare ORDER BY ... LIMIT fără sortare
+DROP INDEX IF EXISTS idx_duck_details_type_endurance_speed;
+
+CREATE INDEX IF NOT EXISTS idx_duck_details_type_endurance_speed_user
+    ON duck_details (type, endurance DESC, speed DESC, user_id);
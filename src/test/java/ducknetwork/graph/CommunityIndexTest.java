@@ -0,0 +1,167 @@
+package ducknetwork.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CommunityIndexTest {
+
+    /** The index must agree with a full BFS recomputation: same count, same grouping, same sizes. */
+    private static void assertMatches(ReferenceGraph ref, CommunityIndex idx) {
+        List<Set<Long>> components = ref.components();
+        assertEquals(components.size(), idx.count(), "community count");
+        for (Set<Long> comp : components) {
+            long expected = idx.communityOf(comp.iterator().next());
+            for (long id : comp) {
+                assertEquals(expected, idx.communityOf(id), "community of " + id);
+                assertEquals(comp.size(), idx.communitySize(id), "community size of " + id);
+            }
+        }
+        for (int i = 0; i < components.size(); i++) {
+            for (int j = i + 1; j < components.size(); j++) {
+                long a = idx.communityOf(components.get(i).iterator().next());
+                long b = idx.communityOf(components.get(j).iterator().next());
+                assertNotEquals(a, b, "distinct components share an id");
+            }
+        }
+    }
+
+    @Test
+    void removingAPathEdgeSplitsIt() {
+        ReferenceGraph ref = new ReferenceGraph().addEdge(1, 2).addEdge(2, 3).addEdge(3, 4);
+        CommunityIndex idx = CommunityIndex.of(ref.toFriendGraph());
+        assertMatches(ref, idx);
+
+        idx.removeFriend(2, 3);
+        ref.removeEdge(2, 3);
+        assertMatches(ref, idx);
+        assertEquals(2, idx.count());
+    }
+
+    @Test
+    void removingOneCycleEdgeKeepsItConnected() {
+        ReferenceGraph ref = new ReferenceGraph();
+        for (long i = 1; i <= 5; i++) ref.addEdge(i, i % 5 + 1);
+        CommunityIndex idx = CommunityIndex.of(ref.toFriendGraph());
+
+        idx.removeFriend(1, 2);
+        ref.removeEdge(1, 2);
+        assertMatches(ref, idx);
+        assertEquals(1, idx.count());
+
+        idx.removeFriend(3, 4);
+        ref.removeEdge(3, 4);
+        assertMatches(ref, idx);
+        assertEquals(2, idx.count());
+    }
+
+    @Test
+    void removingABridgeSeparatesTheTriangles() {
+        ReferenceGraph ref = new ReferenceGraph()
+                .addEdge(1, 2).addEdge(2, 3).addEdge(3, 1)
+                .addEdge(4, 5).addEdge(5, 6).addEdge(6, 4)
+                .addEdge(3, 4);
+        CommunityIndex idx = CommunityIndex.of(ref.toFriendGraph());
+        assertEquals(1, idx.count());
+
+        idx.removeFriend(4, 3);
+        ref.removeEdge(3, 4);
+        assertMatches(ref, idx);
+
+        idx.addFriend(1, 6);
+        ref.addEdge(1, 6);
+        assertMatches(ref, idx);
+    }
+
+    @Test
+    void isolatedUsersAreCommunitiesOfTheirOwn() {
+        ReferenceGraph ref = new ReferenceGraph().addNode(10).addNode(20).addEdge(1, 2);
+        CommunityIndex idx = CommunityIndex.of(ref.toFriendGraph());
+        assertMatches(ref, idx);
+
+        idx.addUser(30);
+        ref.addNode(30);
+        assertMatches(ref, idx);
+
+        idx.removeUser(20);
+        ref.removeNode(20);
+        assertMatches(ref, idx);
+        assertEquals(-1, idx.communityOf(20));
+        assertEquals(0, idx.communitySize(20));
+
+        idx.addUser(20); // a removed user can come back
+        ref.addNode(20);
+        assertMatches(ref, idx);
+    }
+
+    @Test
+    void removingTheCenterOfAStarLeavesItsLeaves() {
+        ReferenceGraph ref = new ReferenceGraph();
+        for (long leaf = 2; leaf <= 6; leaf++) ref.addEdge(1, leaf);
+        ref.addEdge(5, 6);
+        CommunityIndex idx = CommunityIndex.of(ref.toFriendGraph());
+
+        idx.removeUser(1);
+        ref.removeNode(1);
+        assertMatches(ref, idx);
+        assertEquals(4, idx.count()); // 2, 3, 4 and {5, 6}
+    }
+
+    @Test
+    void redundantAndUnknownUpdatesAreIgnored() {
+        ReferenceGraph ref = new ReferenceGraph().addEdge(1, 2).addNode(3);
+        CommunityIndex idx = CommunityIndex.of(ref.toFriendGraph());
+
+        idx.addFriend(1, 2);
+        idx.addFriend(2, 2);
+        idx.addFriend(1, 99);
+        idx.removeFriend(1, 3);
+        idx.removeUser(99);
+        idx.addUser(3);
+        assertMatches(ref, idx);
+    }
+
+    @Test
+    void randomMutationsMatchRecomputation() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            ReferenceGraph ref = new ReferenceGraph();
+            int n = 5 + random.nextInt(25);
+            for (long id = 1; id <= n; id++) ref.addNode(id);
+            for (int e = random.nextInt(2 * n); e > 0; e--) {
+                long a = 1 + random.nextInt(n), b = 1 + random.nextInt(n);
+                if (a != b) ref.addEdge(a, b);
+            }
+            CommunityIndex idx = CommunityIndex.of(ref.toFriendGraph());
+            assertMatches(ref, idx);
+
+            for (int op = 0; op < 200; op++) {
+                long a = 1 + random.nextInt(n + 3), b = 1 + random.nextInt(n + 3);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        if (a != b && ref.hasNode(a) && ref.hasNode(b)) ref.addEdge(a, b);
+                        idx.addFriend(a, b);
+                        break;
+                    case 1:
+                        ref.removeEdge(a, b);
+                        idx.removeFriend(a, b);
+                        break;
+                    case 2:
+                        ref.removeNode(a);
+                        idx.removeUser(a);
+                        break;
+                    default:
+                        ref.addNode(a);
+                        idx.addUser(a);
+                        break;
+                }
+                assertMatches(ref, idx);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ducknetwork.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DiameterEngineTest {
+
+    /** Every component's diameter must equal the largest BFS eccentricity over its members. */
+    private static void assertDiameters(ReferenceGraph ref, DiameterEngine engine) {
+        FriendGraph g = ref.toFriendGraph();
+        for (int[] comp : g.components()) {
+            Set<Long> ids = new TreeSet<>();
+            for (int node : comp) ids.add(g.idOf(node));
+            assertEquals(ref.diameter(ids), engine.diameter(comp), "diameter of " + ids);
+        }
+    }
+
+    @Test
+    void pathCycleAndStar() {
+        ReferenceGraph path = new ReferenceGraph();
+        for (long i = 1; i < 10; i++) path.addEdge(i, i + 1);
+        assertDiameters(path, new DiameterEngine(path.toFriendGraph()));
+
+        ReferenceGraph cycle = new ReferenceGraph();
+        for (long i = 1; i <= 9; i++) cycle.addEdge(i, i % 9 + 1);
+        assertDiameters(cycle, new DiameterEngine(cycle.toFriendGraph()));
+
+        ReferenceGraph star = new ReferenceGraph();
+        for (long leaf = 2; leaf <= 8; leaf++) star.addEdge(1, leaf);
+        assertDiameters(star, new DiameterEngine(star.toFriendGraph()));
+    }
+
+    @Test
+    void isolatedNodesAndPairs() {
+        ReferenceGraph ref = new ReferenceGraph().addNode(1).addNode(2).addEdge(3, 4);
+        assertDiameters(ref, new DiameterEngine(ref.toFriendGraph()));
+    }
+
+    @Test
+    void widestComponentPrefersTheLongerChainOverTheLargerClique() {
+        ReferenceGraph ref = new ReferenceGraph();
+        for (long a = 1; a <= 6; a++) {
+            for (long b = a + 1; b <= 6; b++) ref.addEdge(a, b); // clique: 6 nodes, diameter 1
+        }
+        for (long i = 10; i < 14; i++) ref.addEdge(i, i + 1);   // path: 5 nodes, diameter 4
+        ref.addNode(20);
+        FriendGraph g = ref.toFriendGraph();
+
+        int[] widest = new DiameterEngine(g).widestComponent(g.components());
+        Set<Long> ids = new TreeSet<>();
+        for (int node : widest) ids.add(g.idOf(node));
+        assertEquals(Set.of(10L, 11L, 12L, 13L, 14L), ids);
+        assertArrayEquals(new int[0], new DiameterEngine(new ReferenceGraph().toFriendGraph())
+                .widestComponent(new int[0][]));
+    }
+
+    @Test
+    void randomGraphsMatchBruteForce() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            ReferenceGraph ref = new ReferenceGraph();
+            int n = 2 + random.nextInt(40);
+            for (long id = 1; id <= n; id++) ref.addNode(id);
+            for (int e = random.nextInt(2 * n); e > 0; e--) {
+                long a = 1 + random.nextInt(n), b = 1 + random.nextInt(n);
+                if (a != b) ref.addEdge(a, b);
+            }
+            assertDiameters(ref, new DiameterEngine(ref.toFriendGraph()));
+        }
+    }
+
+    @Test
+    void largeComponentsUseThePoolAndGetTheSameAnswer() {
+        // above PARALLEL_THRESHOLD: a long path with short branches, diameter known without brute force
+        ReferenceGraph ref = new ReferenceGraph();
+        int spine = 5000;
+        for (long i = 1; i < spine; i++) ref.addEdge(i, i + 1);
+        ref.addEdge(1, 100_001).addEdge(spine, 100_002).addEdge(2500, 100_003);
+        FriendGraph g = ref.toFriendGraph();
+        int[][] components = g.components();
+        assertEquals(1, components.length);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(spine + 1, new DiameterEngine(g, pool).diameter(components[0]));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ducknetwork.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathFinderTest {
+
+    /**
+     * The path must run from one end to the other over real edges and be as short as a plain BFS says;
+     * empty exactly when the target is unreachable or farther than maxDepth.
+     */
+    private static void assertShortest(ReferenceGraph ref, PathFinder finder, long from, long to, int maxDepth) {
+        long[] path = finder.shortestPath(from, to, maxDepth);
+        Integer expected = ref.hasNode(from) ? ref.distances(from).get(to) : null;
+        if (expected == null || expected > maxDepth) {
+            assertEquals(0, path.length, "path " + from + " -> " + to + " within " + maxDepth);
+            return;
+        }
+        assertEquals(expected + 1, path.length, "length of " + from + " -> " + to);
+        assertEquals(from, path[0]);
+        assertEquals(to, path[path.length - 1]);
+        for (int i = 1; i < path.length; i++) {
+            assertTrue(ref.hasEdge(path[i - 1], path[i]), path[i - 1] + " - " + path[i] + " is not an edge");
+        }
+    }
+
+    private static void assertAllPairs(ReferenceGraph ref, int maxDepth) {
+        PathFinder finder = new PathFinder(ref.toFriendGraph());
+        for (long a : ref.nodes()) {
+            for (long b : ref.nodes()) {
+                assertShortest(ref, finder, a, b, maxDepth);
+            }
+        }
+    }
+
+    @Test
+    void pathFollowsTheChain() {
+        ReferenceGraph ref = new ReferenceGraph().addEdge(1, 2).addEdge(2, 3).addEdge(3, 4).addEdge(4, 5);
+        PathFinder finder = new PathFinder(ref.toFriendGraph());
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5}, finder.shortestPath(1, 5, PathFinder.UNLIMITED));
+        assertArrayEquals(new long[]{5, 4, 3}, finder.shortestPath(5, 3, PathFinder.UNLIMITED));
+        assertArrayEquals(new long[]{3}, finder.shortestPath(3, 3, 0));
+        assertAllPairs(ref, PathFinder.UNLIMITED);
+    }
+
+    @Test
+    void cycleTakesTheShorterSide() {
+        ReferenceGraph ref = new ReferenceGraph();
+        for (long i = 1; i <= 7; i++) ref.addEdge(i, i % 7 + 1);
+        PathFinder finder = new PathFinder(ref.toFriendGraph());
+        assertArrayEquals(new long[]{1, 7, 6}, finder.shortestPath(1, 6, PathFinder.UNLIMITED));
+        assertAllPairs(ref, PathFinder.UNLIMITED);
+    }
+
+    @Test
+    void removedBridgeDisconnectsTheTriangles() {
+        ReferenceGraph ref = new ReferenceGraph()
+                .addEdge(1, 2).addEdge(2, 3).addEdge(3, 1)
+                .addEdge(4, 5).addEdge(5, 6).addEdge(6, 4)
+                .addEdge(3, 4);
+        assertAllPairs(ref, PathFinder.UNLIMITED);
+
+        ref.removeEdge(3, 4);
+        PathFinder finder = new PathFinder(ref.toFriendGraph());
+        assertEquals(0, finder.shortestPath(1, 6, PathFinder.UNLIMITED).length);
+        assertAllPairs(ref, PathFinder.UNLIMITED);
+    }
+
+    @Test
+    void isolatedAndUnknownUsersHaveNoPath() {
+        ReferenceGraph ref = new ReferenceGraph().addEdge(1, 2).addNode(3);
+        PathFinder finder = new PathFinder(ref.toFriendGraph());
+        assertEquals(0, finder.shortestPath(1, 3, PathFinder.UNLIMITED).length);
+        assertEquals(0, finder.shortestPath(1, 99, PathFinder.UNLIMITED).length);
+        assertEquals(0, finder.shortestPath(99, 1, PathFinder.UNLIMITED).length);
+        assertArrayEquals(new long[]{3}, finder.shortestPath(3, 3, PathFinder.UNLIMITED));
+    }
+
+    @Test
+    void depthLimitCutsLongerPaths() {
+        ReferenceGraph ref = new ReferenceGraph();
+        for (long i = 1; i < 8; i++) ref.addEdge(i, i + 1);
+        PathFinder finder = new PathFinder(ref.toFriendGraph());
+        assertEquals(0, finder.shortestPath(1, 8, 6).length);
+        assertEquals(8, finder.shortestPath(1, 8, 7).length);
+        for (int depth = 0; depth <= 8; depth++) assertAllPairs(ref, depth);
+    }
+
+    @Test
+    void randomGraphsMatchBreadthFirstSearch() {
+        Random random = new Random(11);
+        for (int round = 0; round < 40; round++) {
+            ReferenceGraph ref = new ReferenceGraph();
+            int n = 2 + random.nextInt(30);
+            for (long id = 1; id <= n; id++) ref.addNode(id * 10);
+            for (int e = random.nextInt(2 * n); e > 0; e--) {
+                long a = 10L * (1 + random.nextInt(n)), b = 10L * (1 + random.nextInt(n));
+                if (a != b) ref.addEdge(a, b);
+            }
+            assertAllPairs(ref, PathFinder.UNLIMITED);
+            assertAllPairs(ref, 1 + random.nextInt(4));
+        }
+    }
+
+    @Test
+    void scratchIsReusedAcrossManyQueries() {
+        ReferenceGraph ref = new ReferenceGraph().addEdge(1, 2).addEdge(2, 3).addNode(4);
+        PathFinder finder = new PathFinder(ref.toFriendGraph());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(3, finder.shortestPath(1, 3, PathFinder.UNLIMITED).length);
+            assertEquals(0, finder.shortestPath(1, 4, PathFinder.UNLIMITED).length);
+        }
+        Map<Long, Integer> dist = ref.distances(3);
+        assertEquals(dist.get(1L) + 1, finder.shortestPath(3, 1, PathFinder.UNLIMITED).length);
+    }
+}
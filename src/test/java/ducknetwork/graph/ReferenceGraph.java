@@ -0,0 +1,105 @@
+package ducknetwork.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Brute-force reference for the graph tests: an adjacency map and plain BFS, like the
+ * implementation the service used before the CSR snapshot.
+ */
+final class ReferenceGraph {
+
+    private final Map<Long, Set<Long>> adj = new TreeMap<>();
+
+    ReferenceGraph addNode(long id) {
+        adj.computeIfAbsent(id, k -> new TreeSet<>());
+        return this;
+    }
+
+    ReferenceGraph addEdge(long a, long b) {
+        addNode(a).addNode(b);
+        adj.get(a).add(b);
+        adj.get(b).add(a);
+        return this;
+    }
+
+    void removeEdge(long a, long b) {
+        if (adj.containsKey(a)) adj.get(a).remove(b);
+        if (adj.containsKey(b)) adj.get(b).remove(a);
+    }
+
+    void removeNode(long id) {
+        Set<Long> nbs = adj.remove(id);
+        if (nbs == null) return;
+        for (long nb : nbs) adj.get(nb).remove(id);
+    }
+
+    boolean hasNode(long id) {
+        return adj.containsKey(id);
+    }
+
+    boolean hasEdge(long a, long b) {
+        return adj.containsKey(a) && adj.get(a).contains(b);
+    }
+
+    Set<Long> nodes() {
+        return adj.keySet();
+    }
+
+    FriendGraph toFriendGraph() {
+        FriendGraph.Builder b = new FriendGraph.Builder();
+        for (long id : adj.keySet()) b.addNode(id);
+        for (Map.Entry<Long, Set<Long>> e : adj.entrySet()) {
+            for (long nb : e.getValue()) {
+                if (e.getKey() < nb) b.addEdge(e.getKey(), nb);
+            }
+        }
+        return b.build();
+    }
+
+    /** Hop distances from source to every reachable node. */
+    Map<Long, Integer> distances(long source) {
+        Map<Long, Integer> dist = new HashMap<>();
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        dist.put(source, 0);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            long cur = queue.poll();
+            for (long nb : adj.get(cur)) {
+                if (!dist.containsKey(nb)) {
+                    dist.put(nb, dist.get(cur) + 1);
+                    queue.add(nb);
+                }
+            }
+        }
+        return dist;
+    }
+
+    List<Set<Long>> components() {
+        List<Set<Long>> result = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (long id : adj.keySet()) {
+            if (seen.contains(id)) continue;
+            Set<Long> comp = new TreeSet<>(distances(id).keySet());
+            seen.addAll(comp);
+            result.add(comp);
+        }
+        return result;
+    }
+
+    /** Largest eccentricity over the members of the component. */
+    int diameter(Set<Long> component) {
+        int best = 0;
+        for (long id : component) {
+            for (int d : distances(id).values()) best = Math.max(best, d);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,273 @@
+package ducknetwork.repository.memory;
+
+import ducknetwork.domain.Duck;
+import ducknetwork.domain.Person;
+import ducknetwork.domain.SwimmingDuck;
+import ducknetwork.domain.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryStoreRecoveryTest {
+
+    private static final String JOURNAL = "journal.wal";
+    private static final long JOURNAL_HEADER = 8 + 4 + 8;
+
+    @TempDir
+    Path tmp;
+
+    private static Person person(String name) {
+        return new Person(null, name, name + "@ducks.test", "pw", "First", "Last",
+                LocalDate.of(2000, 1, 1), "tester", 5);
+    }
+
+    private static long save(MemoryStore store, User u) {
+        return new InMemoryUserRepository(store).save(u).getId();
+    }
+
+    private static void addFriend(MemoryStore store, long a, long b) {
+        store.write(() -> store.addFriendship(a, b));
+    }
+
+    private static boolean friends(MemoryStore store, long a, long b) {
+        LongSet set = store.friends.get(a);
+        return set != null && set.contains(b);
+    }
+
+    /**
+     * What a crash would leave on disk: the files as they are now, with the store still open. Every write
+     * has returned, so its journal records are already on disk.
+     */
+    private Path crashImage(Path dir, String name) throws IOException {
+        Path image = tmp.resolve(name);
+        Files.createDirectories(image);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path f : files) Files.copy(f, image.resolve(f.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return image;
+    }
+
+    @Test
+    void closeAndReopenKeepsEveryTable() {
+        Path dir = tmp.resolve("store");
+        long ana, duck;
+        try (MemoryStore store = MemoryStore.open(dir)) {
+            ana = save(store, person("ana"));
+            duck = save(store, new SwimmingDuck(null, "rata", "rata@ducks.test", "pw", 3.5, 40.0));
+            long gone = save(store, person("gone"));
+            addFriend(store, ana, duck);
+            addFriend(store, ana, gone);
+            store.write(() -> {
+                store.deleteUser(gone);
+                store.insertCard(1, "Lac");
+                store.addCardMember(1, duck);
+                store.insertEvent(1, new MemoryStore.EventRow("Cursa", new double[]{10, 20.5}));
+                store.subscribe(1, ana);
+                store.addRaceTime(1, duck, 12.5);
+                store.addRaceTime(1, duck, 11.0);
+            });
+        }
+
+        try (MemoryStore store = MemoryStore.open(dir)) {
+            assertEquals(2, store.users.size());
+            assertEquals("ana", store.users.get(ana).getUsername());
+            Duck d = (Duck) store.users.get(duck);
+            assertEquals("SWIMMING", d.getType());
+            assertEquals(3.5, d.getSpeed());
+            assertTrue(friends(store, ana, duck) && friends(store, duck, ana));
+            assertEquals(1, store.friends.get(ana).size());
+            assertEquals("Lac", store.cards.get(1));
+            assertTrue(store.cardMembers.get(1).contains(duck));
+            assertTrue(store.duckCards.get(duck).contains(1));
+            assertEquals("Cursa", store.events.get(1).name());
+            assertArrayEquals(new double[]{10, 20.5}, store.events.get(1).buoys());
+            assertTrue(store.eventSubscribers.get(1).contains(ana));
+            assertEquals(11.0, store.bestByDuck.get(duck).best);
+            assertEquals(2, store.bestByEvent.get(1).get(duck).races);
+            // ids keep growing after a restart, past the deleted user
+            assertEquals(duck + 2, save(store, person("next")));
+        }
+    }
+
+    @Test
+    void journalIsReplayedWithoutACheckpoint() throws IOException {
+        Path dir = tmp.resolve("store");
+        try (MemoryStore store = MemoryStore.open(dir)) {
+            long a = save(store, person("ana"));
+            long b = save(store, person("bob"));
+            addFriend(store, a, b);
+            Path image = crashImage(dir, "crash");
+
+            try (MemoryStore recovered = MemoryStore.open(image)) {
+                assertEquals(2, recovered.users.size());
+                assertTrue(friends(recovered, a, b));
+            }
+        }
+    }
+
+    @Test
+    void tornLastRecordIsCutOff() throws IOException {
+        Path dir = tmp.resolve("store");
+        try (MemoryStore store = MemoryStore.open(dir)) {
+            long a = save(store, person("ana"));
+            long b = save(store, person("bob"));
+            long before = Files.size(dir.resolve(JOURNAL));
+            addFriend(store, a, b);
+            Path image = crashImage(dir, "crash");
+
+            Path journal = image.resolve(JOURNAL);
+            try (FileChannel ch = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                ch.truncate(ch.size() - 3); // the write of the last record was interrupted
+            }
+
+            try (MemoryStore recovered = MemoryStore.open(image)) {
+                assertEquals(2, recovered.users.size());
+                assertFalse(friends(recovered, a, b));
+                assertEquals(before, Files.size(journal));
+                // the log goes on from the cut
+                addFriend(recovered, a, b);
+            }
+            try (MemoryStore reopened = MemoryStore.open(image)) {
+                assertTrue(friends(reopened, a, b));
+            }
+        }
+    }
+
+    @Test
+    void corruptLastRecordIsCutOff() throws IOException {
+        Path dir = tmp.resolve("store");
+        try (MemoryStore store = MemoryStore.open(dir)) {
+            long a = save(store, person("ana"));
+            long b = save(store, person("bob"));
+            long before = Files.size(dir.resolve(JOURNAL));
+            addFriend(store, a, b);
+            Path image = crashImage(dir, "crash");
+
+            Path journal = image.resolve(JOURNAL);
+            try (FileChannel ch = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer last = ByteBuffer.allocate(1);
+                ch.read(last, ch.size() - 1);
+                last.put(0, (byte) (last.get(0) ^ 0x5A)).rewind();
+                ch.write(last, ch.size() - 1);
+            }
+
+            try (MemoryStore recovered = MemoryStore.open(image)) {
+                assertEquals(2, recovered.users.size());
+                assertFalse(friends(recovered, a, b));
+                assertEquals(before, Files.size(journal));
+            }
+        }
+    }
+
+    @Test
+    void corruptNewestSnapshotFallsBackToThePreviousGeneration() throws IOException {
+        Path dir = tmp.resolve("store");
+        try (MemoryStore store = MemoryStore.open(dir)) {
+            long a = save(store, person("ana"));
+            long b = save(store, person("bob"));
+            store.checkpoint(); // snapshot 1, journal restarted as generation 1
+            addFriend(store, a, b);
+            Path image = crashImage(dir, "crash");
+
+            // snapshot 2 was being written when the process died: present, but fails its checksum
+            Path snapshot1 = image.resolve("snapshot-1.bin");
+            byte[] bytes = Files.readAllBytes(snapshot1);
+            bytes[bytes.length / 2] ^= 0x5A;
+            Files.write(image.resolve("snapshot-2.bin"), bytes);
+
+            try (MemoryStore recovered = MemoryStore.open(image)) {
+                assertEquals(2, recovered.users.size());
+                assertTrue(friends(recovered, a, b)); // from the generation 1 journal
+            }
+            try (MemoryStore reopened = MemoryStore.open(image)) {
+                assertEquals(2, reopened.users.size());
+                assertTrue(friends(reopened, a, b));
+            }
+        }
+    }
+
+    @Test
+    void journalOlderThanTheSnapshotIsDiscarded() throws IOException {
+        Path dir = tmp.resolve("store");
+        try (MemoryStore store = MemoryStore.open(dir)) {
+            long duck = save(store, new SwimmingDuck(null, "rata", "rata@ducks.test", "pw", 3.5, 40.0));
+            store.write(() -> store.addRaceTime(1, duck, 12.5));
+            Path staleJournal = crashImage(dir, "before").resolve(JOURNAL);
+
+            store.checkpoint();
+            Path image = crashImage(dir, "crash");
+            // died after snapshot 1 was written, before the journal was restarted
+            Files.copy(staleJournal, image.resolve(JOURNAL), StandardCopyOption.REPLACE_EXISTING);
+
+            try (MemoryStore recovered = MemoryStore.open(image)) {
+                assertEquals(1, recovered.users.size());
+                assertEquals(1, recovered.bestByDuck.get(duck).races); // not replayed a second time
+                assertEquals(JOURNAL_HEADER, Files.size(image.resolve(JOURNAL)));
+            }
+        }
+    }
+
+    @Test
+    void snapshotsOlderThanACheckpointAreRemoved() throws IOException {
+        Path dir = tmp.resolve("store");
+        try (MemoryStore store = MemoryStore.open(dir)) {
+            save(store, person("ana"));
+            store.checkpoint();
+            save(store, person("bob"));
+            store.checkpoint();
+            assertFalse(Files.exists(dir.resolve("snapshot-1.bin")));
+            assertTrue(Files.exists(dir.resolve("snapshot-2.bin")));
+            assertEquals(JOURNAL_HEADER, Files.size(dir.resolve(JOURNAL)));
+        }
+        try (MemoryStore reopened = MemoryStore.open(dir)) {
+            assertEquals(2, reopened.users.size());
+            assertNull(reopened.users.get(99));
+        }
+    }
+
+    @Test
+    void deletingAnEventRecomputesBestTimesAlsoOnReplay() throws IOException {
+        Path dir = tmp.resolve("store");
+        try (MemoryStore store = MemoryStore.open(dir)) {
+            long fast = save(store, new SwimmingDuck(null, "rapida", "rapida@ducks.test", "pw", 9.0, 40.0));
+            long slow = save(store, new SwimmingDuck(null, "lenta", "lenta@ducks.test", "pw", 2.0, 40.0));
+            store.write(() -> {
+                store.insertEvent(1, new MemoryStore.EventRow("Sprint", new double[]{10}));
+                store.insertEvent(2, new MemoryStore.EventRow("Maraton", new double[]{100}));
+                store.addRaceTime(1, fast, 5.0);
+                store.addRaceTime(1, slow, 9.0);
+                store.addRaceTime(2, fast, 7.0);
+                store.addRaceTime(2, fast, 8.0);
+                store.deleteEvent(1);
+            });
+            assertBestTimesWithoutTheSprint(store, fast, slow);
+
+            Path image = crashImage(dir, "crash");
+            try (MemoryStore recovered = MemoryStore.open(image)) {
+                assertBestTimesWithoutTheSprint(recovered, fast, slow);
+            }
+        }
+    }
+
+    private static void assertBestTimesWithoutTheSprint(MemoryStore store, long fast, long slow) {
+        assertEquals(7.0, store.bestByDuck.get(fast).best);
+        assertEquals(2, store.bestByDuck.get(fast).races);
+        assertNull(store.bestByDuck.get(slow)); // raced only in the deleted event
+        assertNull(store.bestByEvent.get(1));
+    }
+}